@@ -0,0 +1,78 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import dev.bebomny.beaver.beaverutils.helpers.BlockLookupTable;
+import dev.bebomny.beaver.beaverutils.helpers.BlockUtils;
+import net.minecraft.block.Block;
+import net.minecraft.registry.Registries;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The XRay interesting block lookup done for every block while meshing, at different list sizes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BlockLookupBenchmark {
+
+    private static final int SAMPLES = 4096;
+
+    @Param({"10", "100", "500"})
+    public int listSize;
+
+    private List<String> blockNames;
+    private BlockLookupTable lookupTable;
+    private Block[] samples;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.initialize();
+
+        List<Block> blocks = new ArrayList<>();
+        Registries.BLOCK.forEach(blocks::add);
+        Random random = new Random(42);
+        Collections.shuffle(blocks, random);
+
+        blockNames = new ArrayList<>();
+        for (int i = 0; i < Math.min(listSize, blocks.size()); i++)
+            blockNames.add(BlockUtils.getBlockName(blocks.get(i)));
+        lookupTable = BlockLookupTable.compile(blockNames);
+
+        samples = new Block[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++)
+            samples[i] = blocks.get(random.nextInt(blocks.size()));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int lookupTable() {
+        int hits = 0;
+        for (Block block : samples) {
+            if (lookupTable.contains(block))
+                hits++;
+        }
+        return hits;
+    }
+
+    //How XRay looked blocks up before the lookup table, by name in the config list
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public int nameList() {
+        int hits = 0;
+        for (Block block : samples) {
+            if (blockNames.contains(BlockUtils.getBlockName(block)))
+                hits++;
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public BlockLookupTable compile() {
+        return BlockLookupTable.compile(blockNames);
+    }
+}
@@ -0,0 +1,54 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import com.google.gson.Gson;
+import dev.bebomny.beaver.beaverutils.configuration.Config;
+import dev.bebomny.beaver.beaverutils.configuration.ConfigHandler;
+import dev.bebomny.beaver.beaverutils.configuration.config.XRayConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing and reading the config the way the ConfigHandler does, with a large XRay block list
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigSerializationBenchmark {
+
+    private static final int XRAY_ENTRIES = 500;
+
+    private Gson gson;
+    private Config config;
+    private String xRayJson;
+
+    @Setup
+    public void setup() {
+        gson = ConfigHandler.createGson();
+        config = new Config();
+
+        List<String> interestingBlocks = new ArrayList<>();
+        for (int i = 0; i < XRAY_ENTRIES; i++)
+            interestingBlocks.add("minecraft:benchmark_block_" + i);
+        config.xRayConfig.interestingBlocksAsCollection = interestingBlocks;
+
+        xRayJson = gson.toJson(config.xRayConfig);
+    }
+
+    @Benchmark
+    public String serializeConfig() {
+        return gson.toJson(config);
+    }
+
+    @Benchmark
+    public String serializeXRaySection() {
+        return gson.toJson(config.xRayConfig);
+    }
+
+    @Benchmark
+    public XRayConfig deserializeXRaySection() {
+        return gson.fromJson(xRayJson, XRayConfig.class);
+    }
+}
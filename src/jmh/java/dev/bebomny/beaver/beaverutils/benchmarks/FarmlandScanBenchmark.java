@@ -0,0 +1,122 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import dev.bebomny.beaver.beaverutils.helpers.FarmlandTracker;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.BlockView;
+import org.jetbrains.annotations.Nullable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The AutoPlant farmland scan against a stubbed flat farm, see {@link FarmlandTracker}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FarmlandScanBenchmark {
+
+    private static final int FARM_Y = 63;
+
+    @Param({"4", "8", "16"})
+    public int radius;
+
+    private FarmField world;
+    private FarmlandTracker tracker;
+    private BlockPos[] centers;
+    private BlockPos[] updates;
+    private int step;
+
+    @Setup
+    public void setup() {
+        MinecraftBootstrap.initialize();
+
+        world = new FarmField();
+        tracker = new FarmlandTracker();
+        //The player walking back and forth along x
+        centers = new BlockPos[] {new BlockPos(0, FARM_Y + 1, 0), new BlockPos(1, FARM_Y + 1, 0)};
+        updates = new BlockPos[64];
+        for (int i = 0; i < updates.length; i++)
+            updates[i] = new BlockPos(i % 9 - 4, FARM_Y + 1, i / 9 - 4);
+
+        tracker.update(world, centers[0], radius);
+    }
+
+    //What happens when AutoPlant gets enabled or the player switches worlds
+    @Benchmark
+    public int fullScan() {
+        tracker.clear();
+        tracker.update(world, centers[0], radius);
+        return tracker.getEmptyFarmland().size();
+    }
+
+    //The common case, the player moved by one block since the last tick
+    @Benchmark
+    public int moveOneBlock() {
+        step ^= 1;
+        tracker.update(world, centers[step], radius);
+        return tracker.getEmptyFarmland().size();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public int blockUpdates() {
+        for (BlockPos pos : updates)
+            tracker.onBlockUpdate(pos);
+        return tracker.getEmptyFarmland().size();
+    }
+
+    /**
+     * A flat farm: farmland at {@link #FARM_Y} with a water channel every 9 blocks, about a third of it already planted
+     */
+    private static final class FarmField implements BlockView {
+
+        private final BlockState farmland = Blocks.FARMLAND.getDefaultState();
+        private final BlockState water = Blocks.WATER.getDefaultState();
+        private final BlockState wheat = Blocks.WHEAT.getDefaultState();
+        private final BlockState dirt = Blocks.DIRT.getDefaultState();
+        private final BlockState air = Blocks.AIR.getDefaultState();
+
+        @Override
+        public BlockState getBlockState(BlockPos pos) {
+            int x = pos.getX();
+            int y = pos.getY();
+            int z = pos.getZ();
+
+            if (y < FARM_Y)
+                return dirt;
+
+            if (y == FARM_Y)
+                return Math.floorMod(x, 9) == 4 ? water : farmland;
+
+            if (y == FARM_Y + 1 && Math.floorMod(x * 31 + z * 17, 3) == 0)
+                return wheat;
+
+            return air;
+        }
+
+        @Override
+        public FluidState getFluidState(BlockPos pos) {
+            return getBlockState(pos).getFluidState();
+        }
+
+        @Override
+        public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+            return null;
+        }
+
+        @Override
+        public int getHeight() {
+            return 384;
+        }
+
+        @Override
+        public int getBottomY() {
+            return -64;
+        }
+    }
+}
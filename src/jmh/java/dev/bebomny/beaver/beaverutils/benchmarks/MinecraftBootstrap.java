@@ -0,0 +1,24 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+/**
+ * Sets up the registries, so blocks and block states can be used without a running game
+ */
+final class MinecraftBootstrap {
+
+    private static boolean initialized;
+
+    private MinecraftBootstrap() {
+    }
+
+    static synchronized void initialize() {
+        if (initialized)
+            return;
+
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+        initialized = true;
+    }
+}
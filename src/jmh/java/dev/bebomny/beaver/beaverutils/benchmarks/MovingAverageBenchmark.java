@@ -0,0 +1,39 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import dev.bebomny.beaver.beaverutils.helpers.MovingAverage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The InGameStats speed math, one sample per tick averaged over the same windows InGameStats uses
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MovingAverageBenchmark {
+
+    private MovingAverage average;
+    private double sample;
+
+    @Setup
+    public void setup() {
+        //The default short window, 5 seconds and 60 seconds
+        average = new MovingAverage(20, 100, 1200);
+        for (int i = 0; i < 1200; i++)
+            average.add(i % 7 * 0.1);
+    }
+
+    @Benchmark
+    public void add() {
+        sample += 0.01;
+        average.add(sample);
+    }
+
+    @Benchmark
+    public double addAndReadAll() {
+        sample += 0.01;
+        average.add(sample);
+        return average.getAverage(0) + average.getAverage(1) + average.getAverage(2);
+    }
+}
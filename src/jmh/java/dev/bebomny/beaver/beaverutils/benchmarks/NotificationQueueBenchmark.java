@@ -0,0 +1,72 @@
+package dev.bebomny.beaver.beaverutils.benchmarks;
+
+import dev.bebomny.beaver.beaverutils.notifications.Categories;
+import dev.bebomny.beaver.beaverutils.notifications.Notification;
+import dev.bebomny.beaver.beaverutils.notifications.NotificationQueue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adding, repeating and expiring notifications in the queue the NotificationHandler draws from
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class NotificationQueueBenchmark {
+
+    private static final int POOL_SIZE = 64;
+    //Every pooled notification is ticked while it's shown, with the usual 60 ticks they would all expire during warmup
+    //and the queue would be measured almost empty. This one can't run out within an iteration
+    private static final int POOL_DURATION = Integer.MAX_VALUE;
+
+    @Param({"3", "10"})
+    public int maxNotifications;
+
+    private NotificationQueue queue;
+    private Notification[] distinct;
+    private Notification repeated;
+    private int next;
+
+    @Setup
+    public void setup() {
+        queue = new NotificationQueue();
+        repeated = Notification.builder("Seed Planted")
+                .category(Categories.FEATURE, "AutoPlant")
+                .duration(60)
+                .build();
+    }
+
+    //Rebuilt every iteration, so no iteration starts with notifications ticked down by the previous ones
+    @Setup(Level.Iteration)
+    public void buildPool() {
+        distinct = new Notification[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            distinct[i] = Notification.builder("Notification " + i)
+                    .category(i % 4 == 0 ? Categories.WARN : Categories.FEATURE, "Benchmark")
+                    .duration(POOL_DURATION)
+                    .build();
+        }
+    }
+
+    //A feature posting the same text every tick, counted on the shown notification
+    @Benchmark
+    public Notification offerRepeat() {
+        return queue.offer(repeated, maxNotifications);
+    }
+
+    //A new notification every time, the queue stays full and drops the lowest priority one
+    @Benchmark
+    public Notification offerDistinct() {
+        Notification notification = distinct[next];
+        next = (next + 1) % POOL_SIZE;
+        return queue.offer(notification, maxNotifications);
+    }
+
+    @Benchmark
+    public void offerAndTick() {
+        queue.offer(distinct[next], maxNotifications);
+        next = (next + 1) % POOL_SIZE;
+        queue.tick();
+    }
+}
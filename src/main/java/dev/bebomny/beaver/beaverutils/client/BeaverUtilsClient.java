@@ -7,7 +7,10 @@ import dev.bebomny.beaver.beaverutils.configuration.ConfigHandler;
 import dev.bebomny.beaver.beaverutils.features.FeatureHandler;
 import dev.bebomny.beaver.beaverutils.features.Features;
 import dev.bebomny.beaver.beaverutils.helpers.KeyBindingHandler;
+import dev.bebomny.beaver.beaverutils.helpers.WorkerPool;
+import dev.bebomny.beaver.beaverutils.helpers.WorldChangeStream;
 import dev.bebomny.beaver.beaverutils.notifications.NotificationHandler;
+import dev.bebomny.beaver.beaverutils.profiler.Profiler;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
@@ -24,6 +27,11 @@ public class BeaverUtilsClient implements ClientModInitializer {
     public NotificationHandler notifier;
     public FeatureHandler featureHandler;
     public KeyBindingHandler keyBindingHandler;
+    public Profiler profiler;
+    //Background threads shared by every feature
+    public WorkerPool workerPool;
+    //Block and chunk changes, batched per tick
+    public WorldChangeStream worldChanges;
 
     //Configuration
     public ConfigHandler configHandler;
@@ -55,7 +63,7 @@ public class BeaverUtilsClient implements ClientModInitializer {
     @Override
     public void onInitializeClient() {
         //Initialization Start
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
 
         //Actual Starting Point
         if(INSTANCE == null) INSTANCE = this;
@@ -89,28 +97,50 @@ public class BeaverUtilsClient implements ClientModInitializer {
         // todo! hell nah I am doing it in a completely different way anyway
 
 
+        //Each phase is timed separately, so a slow one shows up in the log
+        StringBuilder phaseTimes = new StringBuilder();
+
         //handlers random
+        long phaseStart = System.nanoTime();
         this.keyBindingHandler = new KeyBindingHandler();
+        //Before the FeatureHandler, every tick handler gets a timer
+        this.profiler = new Profiler(client);
+        //Before everything that registers tick handlers
+        this.featureHandler = new FeatureHandler();
+        this.workerPool = new WorkerPool(client);
+        this.worldChanges = new WorldChangeStream();
         this.notifier = new NotificationHandler(client);
+        phaseStart = logPhase(phaseTimes, "handlers", phaseStart);
 
 
-        //config load
+        //config load, the sections are only read once their features ask for them
         this.configHandler = new ConfigHandler();
         configHandler.loadConfig();
+        phaseStart = logPhase(phaseTimes, "config", phaseStart);
 
         //feature load
-        this.featureHandler = new FeatureHandler();
         this.features = new Features();
+        phaseStart = logPhase(phaseTimes, "features", phaseStart);
 
 
         //command load
         this.commandHandler = new CommandHandler();
+        logPhase(phaseTimes, "commands", phaseStart);
 
-        Runtime.getRuntime().addShutdownHook(new Thread(configHandler::saveConfig));
+        Runtime.getRuntime().addShutdownHook(new Thread(configHandler::flushConfig));
 
         //Initialization End
-        long elapsedTime = System.currentTimeMillis() - startTime;
-        LOGGER.atInfo().log("Initialized in "+ elapsedTime + "ms " + "Have a nice Game! ~ BeaverUtils");
+        long elapsedTime = (System.nanoTime() - startTime) / 1_000_000;
+        LOGGER.atInfo().log("Initialized in "+ elapsedTime + "ms (" + phaseTimes + ") " + "Have a nice Game! ~ BeaverUtils");
+    }
+
+    //Appends the time since phaseStart to phaseTimes, returns the start of the next phase
+    private static long logPhase(StringBuilder phaseTimes, String phase, long phaseStart) {
+        long now = System.nanoTime();
+        if (!phaseTimes.isEmpty())
+            phaseTimes.append(", ");
+        phaseTimes.append(phase).append(": ").append(String.format("%.1f", (now - phaseStart) / 1_000_000.0)).append("ms");
+        return now;
     }
 
     public static BeaverUtilsClient getInstance() {
@@ -121,6 +151,14 @@ public class BeaverUtilsClient implements ClientModInitializer {
         return notifier;
     }
 
+    public WorkerPool getWorkerPool() {
+        return workerPool;
+    }
+
+    public Profiler getProfiler() {
+        return profiler;
+    }
+
     public Features getFeatures() {
         return features;
     }
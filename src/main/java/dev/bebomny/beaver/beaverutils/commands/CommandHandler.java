@@ -4,6 +4,7 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import com.mojang.brigadier.builder.LiteralArgumentBuilder;
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.commands.commands.ProfileCommand;
 import dev.bebomny.beaver.beaverutils.commands.commands.XRayCommand;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
 import net.fabricmc.fabric.api.client.command.v2.ClientCommandRegistrationCallback;
@@ -22,6 +23,7 @@ public class CommandHandler {
         this.beaverUtilsClient = BeaverUtilsClient.getInstance();
 
         registerClientside(new XRayCommand());
+        registerClientside(new ProfileCommand());
 
         beaverUtilsClient.LOGGER.atInfo().log("Registered " + clientCommands.size() + " commands!");
     }
@@ -0,0 +1,58 @@
+package dev.bebomny.beaver.beaverutils.commands.commands;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import dev.bebomny.beaver.beaverutils.commands.ClientCommand;
+import dev.bebomny.beaver.beaverutils.profiler.Profiler;
+import net.fabricmc.fabric.api.client.command.v2.ClientCommandManager;
+import net.fabricmc.fabric.api.client.command.v2.FabricClientCommandSource;
+import net.minecraft.command.CommandRegistryAccess;
+import net.minecraft.text.Text;
+
+import java.util.List;
+
+public class ProfileCommand extends ClientCommand {
+
+    public ProfileCommand() {
+        super("profile", "Shows how long every feature takes per tick and frame");
+    }
+
+    @Override
+    public void build(ArgumentBuilder<FabricClientCommandSource, ?> builder, CommandRegistryAccess registryAccess) {
+        builder.then(ClientCommandManager.literal(getName())
+                .executes(ctx -> {
+                    if (!Profiler.isActive()) {
+                        ctx.getSource().sendFeedback(Text.of("§eThe profiler is off, start it with: §l§a/beaverutils profile start"));
+                        return 0;
+                    }
+
+                    List<String> summary = beaverUtilsClient.getProfiler().getSummary();
+                    if (summary.isEmpty()) {
+                        ctx.getSource().sendFeedback(Text.of("§eNothing recorded yet, try again in a second"));
+                        return 0;
+                    }
+
+                    ctx.getSource().sendFeedback(Text.of("§6BeaverUtils Profiler §7(last second)\n" + String.join("\n", summary)));
+                    return 0;
+                })
+                .then(ClientCommandManager.literal("start")
+                        .executes(ctx -> {
+                            beaverUtilsClient.getProfiler().start();
+                            ctx.getSource().sendFeedback(Text.of("§aProfiler started, see the results with §l§a/beaverutils profile"));
+                            return 0;
+                        })
+                ).then(ClientCommandManager.literal("stop")
+                        .executes(ctx -> {
+                            beaverUtilsClient.getProfiler().stop();
+                            ctx.getSource().sendFeedback(Text.of("§cProfiler stopped"));
+                            return 0;
+                        })
+                ).then(ClientCommandManager.literal("overlay")
+                        .executes(ctx -> {
+                            boolean visible = beaverUtilsClient.getProfiler().toggleOverlay();
+                            ctx.getSource().sendFeedback(Text.of(visible ? "§aProfiler overlay shown" : "§cProfiler overlay hidden"));
+                            return 0;
+                        })
+                )
+        );
+    }
+}
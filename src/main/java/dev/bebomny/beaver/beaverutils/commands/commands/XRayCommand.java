@@ -2,6 +2,7 @@ package dev.bebomny.beaver.beaverutils.commands.commands;
 
 import com.mojang.brigadier.builder.ArgumentBuilder;
 import dev.bebomny.beaver.beaverutils.commands.ClientCommand;
+import dev.bebomny.beaver.beaverutils.helpers.BlockPositionIndex;
 import dev.bebomny.beaver.beaverutils.helpers.BlockUtils;
 import dev.bebomny.beaver.beaverutils.notifications.Categories;
 import dev.bebomny.beaver.beaverutils.notifications.Notification;
@@ -20,7 +21,9 @@ import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
 
 public class XRayCommand extends ClientCommand {
 
@@ -36,15 +39,13 @@ public class XRayCommand extends ClientCommand {
                                 .executes(ctx -> {
                                     Block block = ctx.getArgument("block", BlockStateArgument.class).getBlockState().getBlock();
 
-                                    if (beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.contains(BlockUtils.getBlockName(block))) {
+                                    if (!beaverUtilsClient.getFeatures().xRay.addInterestingBlock(block)) {
                                         ctx.getSource().sendFeedback(
                                                 Text.of("§l§9" + BlockUtils.getBlockName(block) + " §eis already present in XRay's interesting Blocks")
                                         );
                                         return 0;
                                     }
 
-                                    beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.add(BlockUtils.getBlockName(block));
-
                                     ctx.getSource().sendFeedback(
                                             Text.of("§aAdded §l§9" + BlockUtils.getBlockName(block) + " §ato XRay's interesting Blocks")
                                     );
@@ -72,7 +73,7 @@ public class XRayCommand extends ClientCommand {
                                         BlockPos blockPos = ((BlockHitResult) hitResult).getBlockPos();
                                         BlockState blockState = client.world.getBlockState(blockPos);
 
-                                        if (beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.contains(BlockUtils.getBlockName(blockState.getBlock()))) {
+                                        if (!beaverUtilsClient.getFeatures().xRay.addInterestingBlock(blockState.getBlock())) {
                                             ctx.getSource().sendFeedback(Text.of(
                                                     "§l§9" + BlockUtils.getBlockName(blockState.getBlock()) + " §eis already present in XRay's interesting Blocks" + '\n'
                                                             + "§9To remove it use: " + "§l§a/beaverutils xray remove " + BlockUtils.getBlockName(blockState.getBlock())
@@ -80,8 +81,6 @@ public class XRayCommand extends ClientCommand {
                                             return 0;
                                         }
 
-                                        beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.add(BlockUtils.getBlockName(blockState.getBlock()));
-
                                         ctx.getSource().sendFeedback(
                                                 Text.of("§aAdded §l§9" + BlockUtils.getBlockName(blockState.getBlock()) + " §ato XRay's interesting Blocks")
                                         );
@@ -104,7 +103,7 @@ public class XRayCommand extends ClientCommand {
                                 .executes(ctx -> {
                                     Block block = ctx.getArgument("block", BlockStateArgument.class).getBlockState().getBlock();
 
-                                    if (!beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.contains(BlockUtils.getBlockName(block))) {
+                                    if (!beaverUtilsClient.getFeatures().xRay.removeInterestingBlock(block)) {
                                         ctx.getSource().sendFeedback(
                                                 Text.of(
                                                         "§l§9" + BlockUtils.getBlockName(block) + " §eis not present in XRay's interesting Blocks" + '\n'
@@ -114,8 +113,6 @@ public class XRayCommand extends ClientCommand {
                                         return 0;
                                     }
 
-                                    beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.remove(BlockUtils.getBlockName(block));
-
                                     ctx.getSource().sendFeedback(
                                             Text.of("§cRemoved §l§9" + BlockUtils.getBlockName(block) + " §cfrom XRay's interesting Blocks")
                                     );
@@ -143,7 +140,7 @@ public class XRayCommand extends ClientCommand {
                                         BlockPos blockPos = ((BlockHitResult) hitResult).getBlockPos();
                                         BlockState blockState = client.world.getBlockState(blockPos);
 
-                                        if (!beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.contains(BlockUtils.getBlockName(blockState.getBlock()))) {
+                                        if (!beaverUtilsClient.getFeatures().xRay.removeInterestingBlock(blockState.getBlock())) {
                                             ctx.getSource().sendFeedback(Text.of(
                                                     "§l§9" + BlockUtils.getBlockName(blockState.getBlock()) + " §eis not present in XRay's interesting Blocks" + '\n'
                                                             + "§9To add it use: " + "§l§a/beaverutils xray add " + BlockUtils.getBlockName(blockState.getBlock())
@@ -151,8 +148,6 @@ public class XRayCommand extends ClientCommand {
                                             return 0;
                                         }
 
-                                        beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.add(BlockUtils.getBlockName(blockState.getBlock()));
-
                                         ctx.getSource().sendFeedback(
                                                 Text.of("§cRemoved §l§9" + BlockUtils.getBlockName(blockState.getBlock()) + " §cfrom XRay's interesting Blocks")
                                         );
@@ -172,7 +167,7 @@ public class XRayCommand extends ClientCommand {
                         )
                 ).then(ClientCommandManager.literal("list")
                         .executes(ctx -> {
-                            if (beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection.isEmpty()) {
+                            if (beaverUtilsClient.getFeatures().xRay.getInterestingBlockNames().isEmpty()) {
                                 ctx.getSource().sendFeedback(
                                         Text.of("§c§lXRay's interesting blocks List is Empty!" + '\n' + "&9To add blocks to the list use: " + "§l§a/beaverutils xray add [Block]")
                                 );
@@ -180,7 +175,7 @@ public class XRayCommand extends ClientCommand {
                             }
 
                             StringBuilder list = new StringBuilder();
-                            for (String s : beaverUtilsClient.getConfig().xRayConfig.interestingBlocksAsCollection) {
+                            for (String s : beaverUtilsClient.getFeatures().xRay.getInterestingBlockNames()) {
                                 list.append(s).append(", ");
                             }
 
@@ -189,6 +184,30 @@ public class XRayCommand extends ClientCommand {
                             );
                             return 0;
                         })
+                ).then(ClientCommandManager.literal("count")
+                        .executes(ctx -> {
+                            BlockPositionIndex blockIndex = beaverUtilsClient.getFeatures().xRay.getBlockIndex();
+                            MinecraftClient client = beaverUtilsClient.client;
+
+                            if (blockIndex == null || !blockIndex.isActive() || client.world == null) {
+                                ctx.getSource().sendFeedback(Text.of("§eXRay has to be enabled to count blocks"));
+                                return 0;
+                            }
+
+                            //The index only keeps positions, look the blocks up to group them by name
+                            Map<String, Integer> counts = new TreeMap<>();
+                            blockIndex.forEachPosition(pos ->
+                                    counts.merge(BlockUtils.getBlockName(client.world.getBlockState(pos).getBlock()), 1, Integer::sum)
+                            );
+
+                            StringBuilder list = new StringBuilder();
+                            counts.forEach((name, count) -> list.append('\n').append("§9").append(name).append(" §f").append(count));
+
+                            ctx.getSource().sendFeedback(
+                                    Text.of("§fXRay found §l" + blockIndex.getTotalCount() + "§r§f blocks in " + blockIndex.getSectionCount() + " chunk sections:" + list)
+                            );
+                            return 0;
+                        })
                 )
         );
     }
@@ -3,6 +3,9 @@ package dev.bebomny.beaver.beaverutils.configuration;
 import com.google.gson.annotations.Expose;
 import dev.bebomny.beaver.beaverutils.configuration.config.*;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class Config {
 
     //General config options
@@ -49,4 +52,24 @@ public class Config {
     public Config() {
 
     }
+
+    /**
+     * @return every section, keyed by the field name it had in the old single file config
+     */
+    public Map<String, ConfigSection> getSections() {
+        Map<String, ConfigSection> sections = new LinkedHashMap<>();
+        sections.put("generalConfig", generalConfig);
+        sections.put("quickTeleportConfig", quickTeleportConfig);
+        sections.put("fullBrightConfig", fullBrightConfig);
+        sections.put("autoClickerConfig", autoClickerConfig);
+        sections.put("reachConfig", reachConfig);
+        sections.put("flightConfig", flightConfig);
+        sections.put("noFallDmgConfig", noFallDmgConfig);
+        sections.put("autoPlantConfig", autoPlantConfig);
+        sections.put("inGameStatsConfig", inGameStatsConfig);
+        sections.put("elytraSpeedControlConfig", elytraSpeedControlConfig);
+        sections.put("tunnelBoreConfig", tunnelBoreConfig);
+        sections.put("xRayConfig", xRayConfig);
+        return sections;
+    }
 }
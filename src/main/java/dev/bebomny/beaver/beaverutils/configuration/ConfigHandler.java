@@ -1,26 +1,55 @@
 package dev.bebomny.beaver.beaverutils.configuration;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.*;
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.configuration.config.ConfigSection;
 import net.minecraft.client.MinecraftClient;
 import org.slf4j.Logger;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Stores every {@link ConfigSection} of the {@link Config} in its own file.
+ * Sections are read when their owner first asks for them through {@link #loadSection(ConfigSection)},
+ * and a save only re-serializes and writes the sections that were marked dirty.
+ * Files changed by something else while the game is running are picked up by the {@link ConfigWatcher}.
+ */
 public class ConfigHandler {
 
+    //Bursts of saves (e.g. clicking through a menu) within this window end up as a single write
+    private static final long SAVE_DEBOUNCE_MS = 500;
+    //The single file config used before sections got their own files, migrated on load
+    private static final String LEGACY_CONFIG_FILE = "config.json";
+
     private final MinecraftClient client;
     private final BeaverUtilsClient beaverUtilsClient;
     private final Logger LOGGER;
-    private final Gson gson = new GsonBuilder()
-            .setPrettyPrinting()
-            .excludeFieldsWithoutExposeAnnotation()
-            .create();
+    private final Gson gson = createGson();
     public final Path configDirectory;
-    private File configFile;
+
+    private final ScheduledExecutorService saver;
+    private final Object saveLock = new Object();
+    private ScheduledFuture<?> pendingSave;
+
+    //The json each loaded section file had when it was last read or written, used to tell external edits from our own writes
+    private final Map<String, JsonElement> knownJson = new ConcurrentHashMap<>();
+    //Only touched from the client thread
+    private final Map<ConfigSection, List<Runnable>> reloadListeners = new HashMap<>();
+    private ConfigWatcher configWatcher;
 
     public ConfigHandler() {
         this.client = MinecraftClient.getInstance();
@@ -28,60 +57,254 @@ public class ConfigHandler {
         this.LOGGER = beaverUtilsClient.getLogger("ConfigHandler");
 
         this.configDirectory = client.runDirectory.toPath().resolve("config/BeaverConfigs/BeaverUtils");
-        this.configFile = null;
+        this.saver = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BeaverUtils ConfigSaver");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return a {@code Gson} set up the way config files are read and written, only {@code @Expose}d fields are included
+     */
+    public static Gson createGson() {
+        return new GsonBuilder()
+                .setPrettyPrinting()
+                .excludeFieldsWithoutExposeAnnotation()
+                .create();
     }
 
+    /**
+     * Creates the config with default values, the sections themselves are only read once they're needed
+     */
     public void loadConfig() {
         try {
             if (configDirectory.toFile().mkdirs())
                 LOGGER.atInfo().log("Creating a config directory");
         } catch (Exception ignored) {}
 
-        configFile = new File(configDirectory.toFile(), "config.json");
+        beaverUtilsClient.config = new Config();
 
-        if(configFile.exists()) {
-            try {
-                InputStreamReader inputStreamReader = new InputStreamReader(new FileInputStream(configFile), StandardCharsets.UTF_8);
-                BufferedReader bufferedReader = new BufferedReader(inputStreamReader);
-
-                LOGGER.atInfo().log("Loading from JSON");
-                beaverUtilsClient.config = gson.fromJson(
-                        bufferedReader,
-                        Config.class//Features.class
-                );
-
-                if(beaverUtilsClient.config != null)
-                    LOGGER.atInfo().log("Loaded Config from file");
-            } catch (IOException e) {
-                LOGGER.atError().log("Error at Config load");
-                e.printStackTrace();
-                LOGGER.atError().log("Exception while reading " + configFile.getName() + ". Will load blank config");
+        File legacyConfigFile = configDirectory.resolve(LEGACY_CONFIG_FILE).toFile();
+        if (legacyConfigFile.exists())
+            migrateLegacyConfig(legacyConfigFile);
+
+        //Used by almost everything right from the start
+        loadSection(beaverUtilsClient.config.generalConfig);
+
+        if (beaverUtilsClient.config.generalConfig.hotReload && configWatcher == null) {
+            this.configWatcher = new ConfigWatcher(configDirectory, this::reloadSection, beaverUtilsClient.getLogger("ConfigWatcher"));
+            configWatcher.start();
+        }
+    }
+
+    /**
+     * Reads a section from its file, if that didn't already happen. Sections without a file keep their defaults.
+     * @return {@code section}, for use in field initializers
+     */
+    public <T extends ConfigSection> T loadSection(T section) {
+        if (section.isLoaded())
+            return section;
+
+        synchronized (section) {
+            if (section.isLoaded())
+                return section;
+
+            Path sectionPath = configDirectory.resolve(section.getFileName());
+            if (Files.exists(sectionPath)) {
+                try (BufferedReader reader = Files.newBufferedReader(sectionPath, StandardCharsets.UTF_8)) {
+                    JsonElement json = JsonParser.parseReader(reader);
+                    readInto(section, json);
+                    knownJson.put(section.getFileName(), json);
+                    LOGGER.atInfo().log("Loaded " + section.getFileName());
+                } catch (IOException | JsonParseException e) {
+                    LOGGER.atError().log("Exception while reading " + section.getFileName() + ". Will use the defaults", e);
+                }
+            } else {
+                //Write the defaults, so there is a file to edit
+                section.markDirty();
             }
+
+            section.setLoaded();
         }
 
-        if(beaverUtilsClient.config == null) {
-            // If the config does not exist, generate the default one
-            LOGGER.atInfo().log("Creating blank config and saving to file at " + configFile.getPath());
-            //beaverUtilsClient.features = new Features();
-            beaverUtilsClient.config = new Config();
-            saveConfig();
+        return section;
+    }
+
+    /**
+     * Deserializes the json into the existing section object, the features keep references to it
+     */
+    public void readInto(ConfigSection section, JsonElement json) {
+        Gson sectionGson = gson.newBuilder()
+                .registerTypeAdapter(section.getClass(), (InstanceCreator<ConfigSection>) type -> section)
+                .create();
+        sectionGson.fromJson(json, section.getClass());
+    }
+
+    /**
+     * Serializes a section the same way it is written to its file
+     */
+    public JsonElement toJson(ConfigSection section) {
+        return gson.toJsonTree(section);
+    }
+
+    /**
+     * Runs the listener on the client thread whenever the section's file was changed externally and the new values were applied
+     */
+    public void addReloadListener(ConfigSection section, Runnable listener) {
+        reloadListeners.computeIfAbsent(section, key -> new ArrayList<>()).add(listener);
+    }
+
+    /**
+     * Re-reads a section file after it changed on disk. Parsing, binding into a throwaway instance and comparing happen on the calling thread,
+     * only a section that bound cleanly and whose content actually differs from what was last read or written gets applied, on the client thread.
+     * Sections that weren't loaded yet are skipped, they will read the new file when they are first used.
+     */
+    void reloadSection(String fileName) {
+        ConfigSection section = null;
+        for (ConfigSection candidate : beaverUtilsClient.config.getSections().values()) {
+            if (candidate.getFileName().equals(fileName))
+                section = candidate;
+        }
+
+        if (section == null || !section.isLoaded())
+            return;
+
+        JsonElement json;
+        try (BufferedReader reader = Files.newBufferedReader(configDirectory.resolve(fileName), StandardCharsets.UTF_8)) {
+            json = JsonParser.parseReader(reader);
+        } catch (IOException | JsonParseException e) {
+            //Most likely still being written, or a typo, wait for the next change
+            LOGGER.atWarn().log("Could not read " + fileName + " after it changed: " + e.getMessage());
+            return;
+        }
+
+        //Our own write or a save without changes
+        if (json.isJsonNull() || json.equals(knownJson.get(fileName)))
+            return;
+
+        //Binding can fail part-way through (e.g. a string where a number belongs), try it on a fresh instance
+        //so the live section is never left half-applied
+        try {
+            readInto(section.getClass().getDeclaredConstructor().newInstance(), json);
+        } catch (JsonParseException | IllegalStateException e) {
+            LOGGER.atWarn().log("Could not apply " + fileName + " after it changed, keeping the current values: " + e.getMessage());
+            return;
+        } catch (ReflectiveOperationException e) {
+            LOGGER.atError().log("Could not create a " + section.getClass().getSimpleName() + " to check " + fileName, e);
+            return;
         }
+
+        ConfigSection changedSection = section;
+        client.execute(() -> {
+            //Binds the same json that just bound cleanly, this can't fail part-way anymore
+            readInto(changedSection, json);
+            knownJson.put(fileName, json);
+            LOGGER.atInfo().log("Reloaded " + fileName);
+
+            for (Runnable listener : reloadListeners.getOrDefault(changedSection, List.of()))
+                listener.run();
+        });
     }
 
+    private void migrateLegacyConfig(File legacyConfigFile) {
+        LOGGER.atInfo().log("Migrating " + legacyConfigFile.getName() + " to one file per section");
+
+        try (BufferedReader reader = Files.newBufferedReader(legacyConfigFile.toPath(), StandardCharsets.UTF_8)) {
+            JsonObject json = JsonParser.parseReader(reader).getAsJsonObject();
+
+            for (Map.Entry<String, ConfigSection> entry : beaverUtilsClient.config.getSections().entrySet()) {
+                ConfigSection section = entry.getValue();
+                if (json.has(entry.getKey()))
+                    readInto(section, json.get(entry.getKey()));
+
+                section.setLoaded();
+                section.markDirty();
+            }
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            LOGGER.atError().log("Exception while reading " + legacyConfigFile.getName() + ". Will load blank config", e);
+            return;
+        }
+
+        writeConfig();
+
+        try {
+            Files.move(legacyConfigFile.toPath(), legacyConfigFile.toPath().resolveSibling(LEGACY_CONFIG_FILE + ".old"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOGGER.atError().log("Could not rename " + legacyConfigFile.getName(), e);
+        }
+    }
+
+    /**
+     * Schedules a save of the dirty sections on the background saver thread.
+     * Calls within {@link #SAVE_DEBOUNCE_MS} of each other are coalesced into one write.
+     */
     public void saveConfig() {
+        synchronized (saveLock) {
+            if (pendingSave != null)
+                pendingSave.cancel(false);
+
+            pendingSave = saver.schedule(this::writeConfig, SAVE_DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Writes the dirty sections right away on the calling thread, replacing a scheduled save. Used on shutdown.
+     */
+    public void flushConfig() {
+        synchronized (saveLock) {
+            if (pendingSave != null) {
+                pendingSave.cancel(false);
+                pendingSave = null;
+            }
+        }
+
+        writeConfig();
+    }
+
+    //Sections that were never loaded can't have changed, their files are left alone.
+    //The config only holds simple values and copy-on-write lists, so serializing it off the client thread is fine.
+    private synchronized void writeConfig() {
         try {
-            configFile.getParentFile().mkdirs();
+            Files.createDirectories(configDirectory);
+        } catch (IOException e) {
+            LOGGER.atError().log("Could not create the config directory " + configDirectory, e);
+            return;
+        }
+
+        for (ConfigSection section : beaverUtilsClient.config.getSections().values()) {
+            if (!section.isLoaded() || !section.clearDirty())
+                continue;
+
+            if (!writeSection(section))
+                section.markDirty(); //Try again with the next save
+        }
+    }
 
-            if (!configFile.createNewFile())
-                LOGGER.atInfo().log("Config File already exists");
+    //Serializes into a temp file next to the section file and moves it over the old one,
+    //so a crash mid-write leaves the previous file intact instead of a truncated one
+    private boolean writeSection(ConfigSection section) {
+        Path sectionPath = configDirectory.resolve(section.getFileName());
+        Path tempPath = configDirectory.resolve(section.getFileName() + ".tmp");
+
+        try {
+            LOGGER.atInfo().log("Saving config file at: " + sectionPath);
+            String json = gson.toJson(section);
+            //Remembered the way the watcher will read it back, floats don't compare equal otherwise
+            knownJson.put(section.getFileName(), JsonParser.parseString(json));
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                writer.write(json);
+            }
 
-            LOGGER.atInfo().log("Saving config file at: " + configFile.toPath());
-            BufferedWriter writer  = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(configFile), StandardCharsets.UTF_8));
-            writer.write(gson.toJson(beaverUtilsClient.config));
-            writer.close();
+            try {
+                Files.move(tempPath, sectionPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempPath, sectionPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
         } catch (IOException e) {
-            LOGGER.atError().log("Could not save config file to " + configFile.getPath(), e);
-            e.printStackTrace();
+            LOGGER.atError().log("Could not save config file to " + sectionPath, e);
+            return false;
         }
     }
 
@@ -89,6 +312,10 @@ public class ConfigHandler {
         LOGGER.atWarn().log("Resetting Config to defaults");
         //beaverUtilsClient.features = new Features();
         beaverUtilsClient.config = new Config();
+        for (ConfigSection section : beaverUtilsClient.config.getSections().values()) {
+            section.setLoaded();
+            section.markDirty();
+        }
         saveConfig();
     }
 }
@@ -0,0 +1,73 @@
+package dev.bebomny.beaver.beaverutils.configuration;
+
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Watches the config directory on a background thread and reports the config files that changed.
+ * Events are collected until the directory has been quiet for a moment, editors often write a file in several steps.
+ */
+public class ConfigWatcher {
+
+    private static final long SETTLE_MS = 150;
+
+    private final Path configDirectory;
+    private final Consumer<String> onFileChanged;
+    private final Logger LOGGER;
+
+    /**
+     * @param onFileChanged called on the watcher thread with the name of every changed {@code .json} file
+     */
+    public ConfigWatcher(Path configDirectory, Consumer<String> onFileChanged, Logger logger) {
+        this.configDirectory = configDirectory;
+        this.onFileChanged = onFileChanged;
+        this.LOGGER = logger;
+    }
+
+    public void start() {
+        Thread thread = new Thread(this::run, "BeaverUtils ConfigWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try (WatchService watchService = configDirectory.getFileSystem().newWatchService()) {
+            configDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            LOGGER.atInfo().log("Watching " + configDirectory + " for changes");
+
+            while (true) {
+                Set<String> changedFiles = new HashSet<>();
+                collect(watchService.take(), changedFiles);
+
+                WatchKey key;
+                while ((key = watchService.poll(SETTLE_MS, TimeUnit.MILLISECONDS)) != null)
+                    collect(key, changedFiles);
+
+                for (String fileName : changedFiles)
+                    onFileChanged.accept(fileName);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+        } catch (IOException e) {
+            LOGGER.atError().log("Could not watch the config directory, changes made outside the game won't be applied", e);
+        }
+    }
+
+    private static void collect(WatchKey key, Set<String> changedFiles) {
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                continue;
+
+            //Temp files of our own atomic writes end with .tmp and are skipped
+            String fileName = event.context().toString();
+            if (fileName.endsWith(".json"))
+                changedFiles.add(fileName);
+        }
+        key.reset();
+    }
+}
@@ -111,6 +111,7 @@ public class ConfigurationMenu extends Screen{
                 TextUtils.getEnabledDisabledText("AutoEnable", generalConfig.autoEnable),
                 button -> {
                     generalConfig.autoEnable = !generalConfig.autoEnable;
+                    generalConfig.markDirty();
                     button.setMessage(TextUtils.getEnabledDisabledText("AutoEnable", generalConfig.autoEnable));
                 }
         ).dimensions(20, height - 30, 119, 20).tooltip(autoEnableTooltip).build();
@@ -121,6 +122,7 @@ public class ConfigurationMenu extends Screen{
                 TextUtils.getEnabledDisabledText("Debug", generalConfig.debug),
                 button -> {
                     generalConfig.debug = !generalConfig.debug;
+                    generalConfig.markDirty();
                     button.setMessage(TextUtils.getEnabledDisabledText("Debug", generalConfig.debug));
                 }
         ).dimensions(20, height - 30 - 4 - 20, 90, 20).tooltip(debugTooltip).build();
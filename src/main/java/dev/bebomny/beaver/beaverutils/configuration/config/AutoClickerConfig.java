@@ -3,7 +3,7 @@ package dev.bebomny.beaver.beaverutils.configuration.config;
 import com.google.gson.annotations.Expose;
 import dev.bebomny.beaver.beaverutils.features.features.AutoClicker;
 
-public class AutoClickerConfig {
+public class AutoClickerConfig extends ConfigSection {
 
     @Expose
     public int delay = 30;
@@ -11,6 +11,15 @@ public class AutoPlantConfig extends EnableConfigOption{
     @Expose
     public int plantRadius = 2;
 
+    //How many seeds can be planted in a single tick
+    @Expose
+    public int plantsPerTick = 4;
+
+    //Switch to another hotbar slot with seeds once the held ones run out
+    @Expose
+    public boolean autoSelectSeeds = true;
+
+    //Harvest fully grown crops in reach and replant them, shares the plantsPerTick budget
     @Expose
     public boolean autoBreakCrops = false;
 
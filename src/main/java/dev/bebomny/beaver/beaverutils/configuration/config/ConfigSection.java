@@ -0,0 +1,45 @@
+package dev.bebomny.beaver.beaverutils.configuration.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A part of the {@code Config} that is stored in its own file.
+ * Sections are read on first use and only written again after they were marked dirty.
+ * Call {@link #markDirty()} after changing any field, otherwise the change won't be saved.
+ */
+public abstract class ConfigSection {
+
+    //Neither is exposed to Gson
+    private final transient AtomicBoolean dirty = new AtomicBoolean();
+    private transient volatile boolean loaded;
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    /**
+     * Clears the dirty flag, returning whether it was set. Changes made after this call mark the section dirty again.
+     */
+    public boolean clearDirty() {
+        return dirty.getAndSet(false);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public void setLoaded() {
+        this.loaded = true;
+    }
+
+    /**
+     * @return the name of the file this section is stored in
+     */
+    public String getFileName() {
+        return getClass().getSimpleName() + ".json";
+    }
+}
@@ -2,7 +2,7 @@ package dev.bebomny.beaver.beaverutils.configuration.config;
 
 import com.google.gson.annotations.Expose;
 
-public abstract class EnableConfigOption {
+public abstract class EnableConfigOption extends ConfigSection {
 
     @Expose
     public boolean enabled = false;
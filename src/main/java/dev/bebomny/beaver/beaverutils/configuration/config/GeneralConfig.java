@@ -2,11 +2,19 @@ package dev.bebomny.beaver.beaverutils.configuration.config;
 
 import com.google.gson.annotations.Expose;
 
-public class GeneralConfig {
+public class GeneralConfig extends ConfigSection {
 
     @Expose
     public boolean debug = true;
 
     @Expose
     public boolean autoEnable = true;
+
+    //How many notifications can be shown stacked at once
+    @Expose
+    public int maxNotifications = 3;
+
+    //Apply changes made to the config files while the game is running
+    @Expose
+    public boolean hotReload = true;
 }
\ No newline at end of file
@@ -8,6 +8,7 @@ public class InGameStatsConfig extends EnableConfigOption{
     //@Expose
     //public boolean enabled = false;
 
+    //Ticks averaged for the displayed speed, the 5s and 60s averages are always kept as well
     @Expose
     public int bufferSize = 20;
 
@@ -2,7 +2,7 @@ package dev.bebomny.beaver.beaverutils.configuration.config;
 
 import com.google.gson.annotations.Expose;
 
-public class QuickTeleportConfig {
+public class QuickTeleportConfig extends ConfigSection {
 
     @Expose
     public int distance = 5;
@@ -1,18 +1,30 @@
 package dev.bebomny.beaver.beaverutils.configuration.config;
 
 import com.google.gson.annotations.Expose;
-import net.minecraft.block.Block;
 
 import java.util.ArrayList;
 import java.util.Collection;
 
-public class XRayConfig {
+public class XRayConfig extends ConfigSection {
 
     @Expose
     public boolean enable = false;
 
+    //Rebuild chunk sections nearest first over several frames instead of reloading the whole world renderer
     @Expose
-    public Collection<String> interestingBlocksAsCollection = new ArrayList<>();
+    public boolean incrementalRebuild = true;
+
+    @Expose
+    public int rebuildBudgetPerFrame = 64;
+
+    //Outline every interesting block in the loaded chunks, visible through walls
+    @Expose
+    public boolean highlightBlocks = false;
+
+    //Copy-on-write, never modify this collection in place, replace it (see XRay#addInterestingBlock)
+    //the chunk builder threads and the config saver read it while the client thread writes
+    @Expose
+    public volatile Collection<String> interestingBlocksAsCollection = new ArrayList<>();
 
 
     public XRayConfig() {
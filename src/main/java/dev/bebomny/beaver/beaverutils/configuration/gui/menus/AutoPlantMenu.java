@@ -35,6 +35,12 @@ public class AutoPlantMenu extends OptionsMenu {
         //Mode
         adder.add(this.createModeCyclingButtonWidget(0, ConfigurationMenu.getYPosition(4)));
 
+        //Plants per tick
+        adder.add(this.createPlantsPerTickIncrementWidget(0, ConfigurationMenu.getYPosition(6)));
+
+        //Auto break crops
+        adder.add(this.createAutoBreakCropsButtonWidget(0, ConfigurationMenu.getYPosition(8)));
+
         //Add a DONE button
         adder.add(
                 ButtonWidget.builder(
@@ -68,7 +74,8 @@ public class AutoPlantMenu extends OptionsMenu {
         //Mode
         context.drawCenteredTextWithShadow(this.textRenderer, Text.of("§fAutoPlant Mode - by default DontLookAt"), this.width/2, ConfigurationMenu.getYPosition(5), 0xFF << 24);
 
-        context.drawCenteredTextWithShadow(this.textRenderer, Text.of("§l§cCurrently nothing to see here, yet"), this.width/2, ConfigurationMenu.getYPosition(7), 0xff << 24);
+        //Plants per tick
+        context.drawCenteredTextWithShadow(this.textRenderer, Text.of("§fSeeds planted per tick - by default 4"), this.width/2, ConfigurationMenu.getYPosition(7), 0xFF << 24);
 
         super.render(context, mouseX, mouseY, delta);
     }
@@ -87,6 +94,18 @@ public class AutoPlantMenu extends OptionsMenu {
                 );
     }
 
+    private CyclingButtonWidget<Boolean> createAutoBreakCropsButtonWidget(int centerX, int y) {
+        AutoPlant autoPlant = beaverUtilsClient.getFeatures().autoPlant;
+
+        return CyclingButtonWidget.onOffBuilder(autoPlant.isAutoBreakCrops())
+                .build(
+                        centerX - 160/2, y,
+                        160, 20,
+                        Text.of("Harvest Crops"),
+                        (button, value) -> {autoPlant.setAutoBreakCrops(value);}
+                );
+    }
+
     private AxisGridWidget createRadiusIncrementWidget(int centerX, int y) {
         AxisGridWidget axisGridWidget = new AxisGridWidget(124, ConfigurationMenu.STANDARD_HEIGHT, AxisGridWidget.DisplayAxis.HORIZONTAL);
 
@@ -126,4 +145,44 @@ public class AutoPlantMenu extends OptionsMenu {
 
         return axisGridWidget;
     }
+
+    private AxisGridWidget createPlantsPerTickIncrementWidget(int centerX, int y) {
+        AxisGridWidget axisGridWidget = new AxisGridWidget(124, ConfigurationMenu.STANDARD_HEIGHT, AxisGridWidget.DisplayAxis.HORIZONTAL);
+
+        AutoPlant autoPlant = beaverUtilsClient.getFeatures().autoPlant;
+
+        ButtonWidget displayWidget = ButtonWidget.builder(
+                Text.of("Per Tick: " + autoPlant.getPlantsPerTick()),
+                button -> {
+                    autoPlant.setPlantsPerTick(4);
+                    button.setMessage(Text.of("Per Tick: " + autoPlant.getPlantsPerTick()));
+                }
+        ).width(80).build();
+
+        ButtonWidget plusButton = ButtonWidget.builder(
+                Text.of("§l+"),
+                button -> {
+                    autoPlant.setPlantsPerTick(autoPlant.getPlantsPerTick() + 1);
+                    displayWidget.setMessage(Text.of("Per Tick: " + autoPlant.getPlantsPerTick()));
+                }
+        ).size(20, 20).build();
+
+        ButtonWidget minusButton = ButtonWidget.builder(
+                Text.of("§l-"),
+                button -> {
+                    autoPlant.setPlantsPerTick(autoPlant.getPlantsPerTick() - 1);
+                    displayWidget.setMessage(Text.of("Per Tick: " + autoPlant.getPlantsPerTick()));
+                }
+        ).size(20, 20).build();
+
+        axisGridWidget.add(displayWidget);
+        axisGridWidget.add(plusButton);
+        axisGridWidget.add(minusButton);
+
+        axisGridWidget.refreshPositions();
+
+        axisGridWidget.setPosition(centerX - axisGridWidget.getWidth()/2, y);
+
+        return axisGridWidget;
+    }
 }
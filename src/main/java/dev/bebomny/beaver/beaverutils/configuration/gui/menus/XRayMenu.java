@@ -3,6 +3,8 @@ package dev.bebomny.beaver.beaverutils.configuration.gui.menus;
 import dev.bebomny.beaver.beaverutils.configuration.ConfigurationMenu;
 import dev.bebomny.beaver.beaverutils.configuration.config.FlightConfig;
 import dev.bebomny.beaver.beaverutils.configuration.config.XRayConfig;
+import dev.bebomny.beaver.beaverutils.features.features.XRay;
+import dev.bebomny.beaver.beaverutils.helpers.TextUtils;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.GridWidget;
@@ -30,6 +32,9 @@ public class XRayMenu extends OptionsMenu{
 
         GridWidget.Adder adder = gridWidget.createAdder(2);
 
+        //Highlight
+        adder.add(this.createHighlightButton(), 2);
+
         //Add a DONE button
         adder.add(
                 ButtonWidget.builder(
@@ -53,6 +58,18 @@ public class XRayMenu extends OptionsMenu{
         gridWidget.forEachChild(this::addDrawableChild);
     }
 
+    private ButtonWidget createHighlightButton() {
+        XRay xRay = beaverUtilsClient.getFeatures().xRay;
+
+        return ButtonWidget.builder(
+                TextUtils.getOnOffText("Highlight Blocks", xRay.isHighlightBlocks()),
+                button -> {
+                    xRay.setHighlightBlocks(!xRay.isHighlightBlocks());
+                    button.setMessage(TextUtils.getOnOffText("Highlight Blocks", xRay.isHighlightBlocks()));
+                }
+        ).width(160).build();
+    }
+
     @Override
     public void render(DrawContext context, int mouseX, int mouseY, float delta) {
         //Add a list with all blocks
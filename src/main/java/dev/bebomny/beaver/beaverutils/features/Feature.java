@@ -3,11 +3,14 @@ package dev.bebomny.beaver.beaverutils.features;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
 import dev.bebomny.beaver.beaverutils.configuration.Config;
+import dev.bebomny.beaver.beaverutils.configuration.config.ConfigSection;
 import dev.bebomny.beaver.beaverutils.notifications.NotificationHandler;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.tooltip.Tooltip;
 import org.slf4j.Logger;
 
+import java.util.function.Consumer;
+
 public abstract class Feature {
 
     protected final MinecraftClient client;
@@ -42,4 +45,26 @@ public abstract class Feature {
         this.mainToolTip = newToolTip;
     }
 
+    /**
+     * Runs the handler every tick while the feature is active, see {@link FeatureHandler#registerTick}
+     */
+    protected TickTask registerTick(TickPhase phase, Consumer<MinecraftClient> handler) {
+        return registerTick(phase, 1, handler);
+    }
+
+    /**
+     * Runs the handler every {@code interval} ticks while the feature is active, see {@link FeatureHandler#registerTick}
+     */
+    protected TickTask registerTick(TickPhase phase, int interval, Consumer<MinecraftClient> handler) {
+        return beaverUtilsClient.featureHandler.registerTick(getName(), this, phase, interval, handler);
+    }
+
+    /**
+     * Makes sure the feature's config section is read from its file before it is used
+     * @return {@code section}
+     */
+    protected <T extends ConfigSection> T loadSection(T section) {
+        return beaverUtilsClient.configHandler.loadSection(section);
+    }
+
 }
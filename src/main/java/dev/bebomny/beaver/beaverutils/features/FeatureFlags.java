@@ -0,0 +1,17 @@
+package dev.bebomny.beaver.beaverutils.features;
+
+/**
+ * Bits of the features that mixin hooks check on hot engine paths.
+ * A hook tests its bit with {@link SimpleOnOffFeature#isFlagEnabled(int)} and returns right away while the feature is off,
+ * without going through {@code BeaverUtilsClient} to the feature object.
+ */
+public final class FeatureFlags {
+
+    public static final int XRAY = 1;
+    public static final int REACH = 1 << 1;
+    public static final int IN_GAME_STATS = 1 << 2;
+    public static final int AUTO_PLANT = 1 << 3;
+
+    private FeatureFlags() {
+    }
+}
@@ -1,18 +1,35 @@
 package dev.bebomny.beaver.beaverutils.features;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class FeatureHandler {
 
+    private static final TickTask[] NO_TASKS = new TickTask[0];
+
     private final BeaverUtilsClient beaverUtilsClient;
 
     public final List<Feature> featureList = new ArrayList<>();
 
+    //Every tick handler, and the ones that currently run per phase
+    //The active arrays are only rebuilt when a feature is enabled or disabled, disabled features cost nothing per tick
+    private final List<TickTask> tickTasks = new ArrayList<>();
+    private TickTask[] activeStartTasks = NO_TASKS;
+    private TickTask[] activeEndTasks = NO_TASKS;
+    private boolean activeTasksDirty;
+
     public FeatureHandler() {
         this.beaverUtilsClient = BeaverUtilsClient.getInstance();
+
+        ClientTickEvents.START_CLIENT_TICK.register(client -> runTasks(TickPhase.START, client));
+        ClientTickEvents.END_CLIENT_TICK.register(client -> runTasks(TickPhase.END, client));
     }
 
     public void addFeature(Feature feature) {
@@ -23,4 +40,76 @@ public class FeatureHandler {
 
         featureList.add(feature);
     }
+
+    /**
+     * Registers a tick handler. If the owner is a {@link SimpleOnOffFeature} the handler only runs while it's enabled,
+     * plus once right after it got disabled so it can clean up.
+     * @param name shown in the tick statistics
+     * @param owner the feature the handler belongs to, {@code null} for handlers that always run
+     * @param phase whether to run at the start or the end of the client tick
+     * @param interval run every {@code interval} ticks
+     * @param handler the tick handler
+     * @return the registered {@code TickTask}
+     */
+    public TickTask registerTick(String name, @Nullable Feature owner, TickPhase phase, int interval, Consumer<MinecraftClient> handler) {
+        TickTask task = new TickTask(name, owner, phase, interval, handler, beaverUtilsClient.profiler.timer("Tick " + name));
+        tickTasks.add(task);
+        activeTasksDirty = true;
+        return task;
+    }
+
+    /**
+     * Called by features after they were enabled or disabled, updates which tick handlers run
+     */
+    public void onFeatureStateChanged(SimpleOnOffFeature feature) {
+        if (!feature.isEnabled()) {
+            for (TickTask task : tickTasks) {
+                if (task.getOwner() == feature)
+                    task.finalRunPending = true;
+            }
+        }
+
+        activeTasksDirty = true;
+    }
+
+    /**
+     * @return every registered tick handler with its timing statistics
+     */
+    public List<TickTask> getTickTasks() {
+        return Collections.unmodifiableList(tickTasks);
+    }
+
+    private void runTasks(TickPhase phase, MinecraftClient client) {
+        if (activeTasksDirty)
+            rebuildActiveTasks();
+
+        TickTask[] tasks = phase == TickPhase.START ? activeStartTasks : activeEndTasks;
+        for (TickTask task : tasks) {
+            boolean finalRun = task.finalRunPending;
+            task.tick(client);
+
+            //Done with its last run after being disabled
+            if (finalRun)
+                activeTasksDirty = true;
+        }
+    }
+
+    private void rebuildActiveTasks() {
+        activeTasksDirty = false;
+
+        List<TickTask> start = new ArrayList<>();
+        List<TickTask> end = new ArrayList<>();
+        for (TickTask task : tickTasks) {
+            if (!task.isActive())
+                continue;
+
+            if (task.getPhase() == TickPhase.START)
+                start.add(task);
+            else
+                end.add(task);
+        }
+
+        this.activeStartTasks = start.toArray(NO_TASKS);
+        this.activeEndTasks = end.toArray(NO_TASKS);
+    }
 }
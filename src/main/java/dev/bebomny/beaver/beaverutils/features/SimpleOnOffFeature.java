@@ -6,24 +6,42 @@ import dev.bebomny.beaver.beaverutils.notifications.Categories;
 import dev.bebomny.beaver.beaverutils.notifications.Notification;
 import net.minecraft.client.gui.screen.Screen;
 
+import java.util.function.Supplier;
+
 public abstract class SimpleOnOffFeature extends Feature{
 
+    //The FeatureFlags of every enabled feature, only written from the client thread
+    private static volatile int enabledFlags;
+
     protected boolean enabled;
     protected EnableConfigOption enableConfig;
+    protected Supplier<OptionsMenu> optionsMenuFactory;
     protected OptionsMenu optionsMenu;
+    private boolean initialized;
+    private int featureFlag;
 
     public SimpleOnOffFeature(String name) {
         super(name);
     }
 
+    /**
+     * Called once, right before the feature is enabled for the first time.
+     * Create anything expensive (threads, render buffers, indexes) here instead of in the constructor,
+     * so features that stay disabled cost next to nothing at startup.
+     */
+    protected void initialize() {
+    }
+
     protected void onEnable() {
         notifier.newNotification(Notification.builder(
                         "§l§a" + getName() + " §l§aEnabled")
                 .category(Categories.STATE, getName())
                 .build());
 
-        if(enableConfig != null)
+        if(enableConfig != null) {
             enableConfig.enabled = true;
+            enableConfig.markDirty();
+        }
     }
 
     protected void onDisable() {
@@ -32,22 +50,59 @@ public abstract class SimpleOnOffFeature extends Feature{
                 .category(Categories.STATE, getName())
                 .build());
 
-        if(enableConfig != null)
+        if(enableConfig != null) {
             enableConfig.enabled = false;
+            enableConfig.markDirty();
+        }
+    }
+
+    /**
+     * Gives the feature a bit in the mask the mixin hooks check, set it before the feature can be enabled
+     * @param featureFlag one of the {@link FeatureFlags}
+     */
+    protected void setFeatureFlag(int featureFlag) {
+        this.featureFlag = featureFlag;
+        updateEnabledFlags();
+    }
+
+    /**
+     * A single volatile read, for hooks that run far too often to look up the feature
+     * @param featureFlag one of the {@link FeatureFlags}
+     * @return true if the feature with that flag is enabled
+     */
+    public static boolean isFlagEnabled(int featureFlag) {
+        return (enabledFlags & featureFlag) != 0;
+    }
+
+    private void updateEnabledFlags() {
+        if(featureFlag == 0)
+            return;
+
+        enabledFlags = enabled ? enabledFlags | featureFlag : enabledFlags & ~featureFlag;
     }
 
     protected void setEnableConfig(EnableConfigOption enableConfig) {
-        this.enableConfig = enableConfig;
+        this.enableConfig = loadSection(enableConfig);
+
+        //Follow the enabled flag when the config file is edited while the game is running
+        if(this.enableConfig != null)
+            beaverUtilsClient.configHandler.addReloadListener(this.enableConfig, () -> setEnabled(this.enableConfig.enabled));
 
         if(this.enableConfig != null && config.generalConfig.autoEnable)
             setEnabled(this.enableConfig.enabled);
     }
 
-    protected void setOptionsMenu(OptionsMenu optionsMenu) {
-        this.optionsMenu = optionsMenu;
+    /**
+     * @param optionsMenuFactory creates the options menu, only called when it's opened for the first time
+     */
+    protected void setOptionsMenu(Supplier<OptionsMenu> optionsMenuFactory) {
+        this.optionsMenuFactory = optionsMenuFactory;
     }
 
     public OptionsMenu getOptionsMenu(Screen parent) {
+        if(optionsMenu == null)
+            optionsMenu = optionsMenuFactory.get();
+
         optionsMenu.setParent(parent);
         return optionsMenu;
     }
@@ -56,12 +111,22 @@ public abstract class SimpleOnOffFeature extends Feature{
         if(this.enabled == enabled)
             return;
 
+        if(enabled && !initialized) {
+            initialize();
+            initialized = true;
+        }
+
         this.enabled = enabled;
+        //Before onEnable/onDisable, those can trigger chunk rebuilds which go through the hooks
+        updateEnabledFlags();
+        beaverUtilsClient.worldChanges.updateActive();
 
         if(enabled)
             onEnable();
         else
             onDisable();
+
+        beaverUtilsClient.featureHandler.onFeatureStateChanged(this);
     }
 
     public boolean isEnabled() {
@@ -0,0 +1,11 @@
+package dev.bebomny.beaver.beaverutils.features;
+
+/**
+ * When in the client tick a {@link TickTask} runs
+ */
+public enum TickPhase {
+    //Before the world and the player are ticked
+    START,
+    //After the world and the player are ticked
+    END
+}
@@ -0,0 +1,120 @@
+package dev.bebomny.beaver.beaverutils.features;
+
+import dev.bebomny.beaver.beaverutils.profiler.LatencyHistogram;
+import dev.bebomny.beaver.beaverutils.profiler.Profiler;
+import net.minecraft.client.MinecraftClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/**
+ * A tick handler registered with the {@link FeatureHandler}.
+ * Runs every {@code interval} ticks while its feature is enabled and keeps track of how long it takes.
+ */
+public class TickTask {
+
+    private final String name;
+    @Nullable
+    private final Feature owner;
+    private final TickPhase phase;
+    private final int interval;
+    private final Consumer<MinecraftClient> handler;
+    //Per second percentiles, only fed while the profiler is running
+    private final LatencyHistogram timer;
+
+    private int countdown;
+    //Set when the feature got disabled, the task runs once more so it can clean up
+    boolean finalRunPending;
+
+    private long runs;
+    private long totalNanos;
+    private long maxNanos;
+    private long lastNanos;
+
+    TickTask(String name, @Nullable Feature owner, TickPhase phase, int interval, Consumer<MinecraftClient> handler, LatencyHistogram timer) {
+        this.name = name;
+        this.owner = owner;
+        this.phase = phase;
+        this.interval = Math.max(1, interval);
+        this.handler = handler;
+        this.timer = timer;
+        this.countdown = 1;
+    }
+
+    /**
+     * @return true if the task should be dispatched, i.e. it has no owner that can be turned off or the owner is enabled
+     */
+    boolean isActive() {
+        return !(owner instanceof SimpleOnOffFeature feature) || feature.isEnabled() || finalRunPending;
+    }
+
+    void tick(MinecraftClient client) {
+        if (--countdown > 0 && !finalRunPending)
+            return;
+
+        countdown = interval;
+        finalRunPending = false;
+
+        long start = System.nanoTime();
+        handler.accept(client);
+        long nanos = System.nanoTime() - start;
+        record(nanos);
+        if (Profiler.isActive())
+            timer.record(nanos);
+    }
+
+    private void record(long nanos) {
+        runs++;
+        totalNanos += nanos;
+        lastNanos = nanos;
+        if (nanos > maxNanos)
+            maxNanos = nanos;
+    }
+
+    public void resetStats() {
+        runs = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        lastNanos = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public @Nullable Feature getOwner() {
+        return owner;
+    }
+
+    public TickPhase getPhase() {
+        return phase;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public LatencyHistogram getTimer() {
+        return timer;
+    }
+
+    public long getRuns() {
+        return runs;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    public double getAverageNanos() {
+        return runs == 0 ? 0.0 : (double) totalNanos / runs;
+    }
+}
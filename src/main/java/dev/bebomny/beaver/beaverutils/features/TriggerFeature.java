@@ -2,7 +2,6 @@ package dev.bebomny.beaver.beaverutils.features;
 
 import dev.bebomny.beaver.beaverutils.notifications.Categories;
 import dev.bebomny.beaver.beaverutils.notifications.Notification;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.fabricmc.fabric.api.client.keybinding.v1.KeyBindingHelper;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.KeyBinding;
@@ -25,7 +24,8 @@ public abstract class TriggerFeature extends Feature{
         LOGGER.atInfo().log("Registered a keybinding for " + getName() + ", with key " + keybindingKey);
 
         if(!keyPressListenerRegistered & fireKey != null) {
-            ClientTickEvents.END_CLIENT_TICK.register(this::checkKeyBindPress);
+            //Not owned by the feature, the key has to be polled while it's disabled too
+            beaverUtilsClient.featureHandler.registerTick(getName() + " Key", null, TickPhase.END, 1, this::checkKeyBindPress);
             keyPressListenerRegistered = true;
         }
     }
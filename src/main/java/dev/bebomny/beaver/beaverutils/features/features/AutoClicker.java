@@ -2,18 +2,20 @@ package dev.bebomny.beaver.beaverutils.features.features;
 
 import dev.bebomny.beaver.beaverutils.configuration.config.AutoClickerConfig;
 import dev.bebomny.beaver.beaverutils.features.KeyOnOffFeature;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import dev.bebomny.beaver.beaverutils.mixinterface.IMinecraftClientInvoker;
 import dev.bebomny.beaver.beaverutils.notifications.Categories;
-import dev.bebomny.beaver.beaverutils.notifications.Notification;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import dev.bebomny.beaver.beaverutils.notifications.NotificationChannel;
 import net.minecraft.client.MinecraftClient;
 import org.lwjgl.glfw.GLFW;
 
 public class AutoClicker extends KeyOnOffFeature {
 
-    private AutoClickerConfig autoClickerConfig = config.autoClickerConfig;
+    private AutoClickerConfig autoClickerConfig = loadSection(config.autoClickerConfig);
 
     private int ticksPast;
+    //At most one new notification per second, repeats in between only bump the counter
+    private final NotificationChannel notifications = notifier.createChannel(Categories.FEATURE, null, 30, 20);
 
     public AutoClicker() {
         super("AutoClicker");
@@ -22,7 +24,7 @@ public class AutoClicker extends KeyOnOffFeature {
 
         addActivationKeybinding(GLFW.GLFW_KEY_N);
 
-        ClientTickEvents.START_CLIENT_TICK.register(this::onUpdate);
+        registerTick(TickPhase.START, this::onUpdate);
     }
 
     private void onUpdate(MinecraftClient client) {
@@ -35,18 +37,18 @@ public class AutoClicker extends KeyOnOffFeature {
                     switch (autoClickerConfig.mode) {
                         case ATTACK -> {
                             ((IMinecraftClientInvoker) client).invokeDoAttack();
-                            notifier.newNotification(Notification.builder("AutoClicker Attacked").duration(30).category(Categories.FEATURE, null).build());
+                            notifications.post("AutoClicker Attacked");
                         }
 
                         case USE -> {
                             ((IMinecraftClientInvoker) client).invokeDoItemUse();
-                            notifier.newNotification(Notification.builder("AutoClicker Used Item").duration(30).category(Categories.FEATURE, null).build());
+                            notifications.post("AutoClicker Used Item");
                         }
 
                         case BOTH -> {
                             ((IMinecraftClientInvoker) client).invokeDoAttack();
                             ((IMinecraftClientInvoker) client).invokeDoItemUse();
-                            notifier.newNotification(Notification.builder("AutoClicker Attacked & Used Item").duration(30).category(Categories.FEATURE, null).build());
+                            notifications.post("AutoClicker Attacked & Used Item");
                         }
                     }
                     ticksPast = 0;
@@ -58,18 +60,18 @@ public class AutoClicker extends KeyOnOffFeature {
                 switch (autoClickerConfig.mode) {
                     case ATTACK -> {
                         client.options.attackKey.setPressed(true);
-                        notifier.newNotification(Notification.builder("AutoClicker Holding Attack Key").duration(30).category(Categories.FEATURE, null).build());
+                        notifications.post("AutoClicker Holding Attack Key");
                     }
 
                     case USE -> {
                         client.options.useKey.setPressed(true);
-                        notifier.newNotification(Notification.builder("AutoClicker Holding Use Item Key").duration(30).category(Categories.FEATURE, null).build());
+                        notifications.post("AutoClicker Holding Use Item Key");
                     }
 
                     case BOTH -> {
                         client.options.attackKey.setPressed(true);
                         client.options.useKey.setPressed(true);
-                        notifier.newNotification(Notification.builder("AutoClicker Holding Attack & Use Item Key").duration(30).category(Categories.FEATURE, null).build());
+                        notifications.post("AutoClicker Holding Attack & Use Item Key");
                     }
                 }
             }
@@ -101,14 +103,17 @@ public class AutoClicker extends KeyOnOffFeature {
 
     public void setDelay(int newDelay) {
         autoClickerConfig.delay = newDelay;
+        autoClickerConfig.markDirty();
     }
 
     public void setType(Type newType) {
         autoClickerConfig.type = newType;
+        autoClickerConfig.markDirty();
     }
 
     public void setMode(Mode newMode) {
         autoClickerConfig.mode = newMode;
+        autoClickerConfig.markDirty();
     }
 
     @Override
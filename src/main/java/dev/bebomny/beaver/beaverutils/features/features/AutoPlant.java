@@ -3,74 +3,102 @@ package dev.bebomny.beaver.beaverutils.features.features;
 import dev.bebomny.beaver.beaverutils.configuration.config.AutoPlantConfig;
 import dev.bebomny.beaver.beaverutils.configuration.gui.menus.AutoPlantMenu;
 import dev.bebomny.beaver.beaverutils.configuration.gui.menus.OptionsMenu;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
 import dev.bebomny.beaver.beaverutils.features.KeyOnOffFeature;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import dev.bebomny.beaver.beaverutils.helpers.BlockUtils;
+import dev.bebomny.beaver.beaverutils.helpers.CropTracker;
+import dev.bebomny.beaver.beaverutils.helpers.FarmlandTracker;
+import dev.bebomny.beaver.beaverutils.helpers.HotbarIndex;
+import dev.bebomny.beaver.beaverutils.helpers.WorkerPool;
+import dev.bebomny.beaver.beaverutils.helpers.WorldChangeSet;
 import dev.bebomny.beaver.beaverutils.notifications.Categories;
-import dev.bebomny.beaver.beaverutils.notifications.Notification;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
-import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
+import dev.bebomny.beaver.beaverutils.notifications.NotificationChannel;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.fabricmc.fabric.api.event.player.AttackBlockCallback;
 import net.minecraft.block.*;
-import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.screen.Screen;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.Item;
 import net.minecraft.item.Items;
 import net.minecraft.nbt.NbtCompound;
 import net.minecraft.registry.BuiltinRegistries;
 import net.minecraft.state.property.IntProperty;
 import net.minecraft.text.Text;
+import net.minecraft.util.ActionResult;
 import net.minecraft.util.Hand;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.math.Direction;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.world.World;
-import org.jetbrains.annotations.Nullable;
 import org.lwjgl.glfw.GLFW;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Set;
 
 public class AutoPlant extends KeyOnOffFeature {
 
-    private AutoPlantConfig autoPlantConfig = config.autoPlantConfig;
-    private List<Item> seeds = new ArrayList<>();
+    //How long a harvested crop is left alone, in case the server rejects the break and puts it back
+    private static final int HARVEST_RETRY_TICKS = 100;
+
+    private AutoPlantConfig autoPlantConfig = loadSection(config.autoPlantConfig);
+    //Compared by identity, Items are singletons
+    private final Set<Item> seeds = new ReferenceOpenHashSet<>();
+    private final HotbarIndex seedSlots = new HotbarIndex(seeds);
+    private final FarmlandTracker farmlandTracker = new FarmlandTracker();
+    private final CropTracker cropTracker = new CropTracker();
+    private final BlockPos.Mutable plantPos = new BlockPos.Mutable();
+    private final LongArrayList candidates = new LongArrayList();
+    //Set while our own harvest goes through attackBlock, so it isn't treated like a manual attack
+    private boolean harvesting;
+    //Harvested crop positions -> world time they may be attacked again
+    private final Long2LongOpenHashMap harvestRetryTimes = new Long2LongOpenHashMap();
+    private long nextRetryPurge;
+    private final NotificationChannel plantNotifications = notifier.createChannel(Categories.FEATURE, getName(), 60, 20);
+    private final NotificationChannel cropNotifications = notifier.createChannel(Categories.INFO, null, 120, 20);
 
 
     public AutoPlant() {
         super("AutoPlant");
 
+        setFeatureFlag(FeatureFlags.AUTO_PLANT);
         addActivationKeybinding(GLFW.GLFW_KEY_UNKNOWN);
         setEnableConfig(autoPlantConfig);
-        setOptionsMenu(new AutoPlantMenu());
+        setOptionsMenu(AutoPlantMenu::new);
 
 //        if(config.generalConfig.autoEnable)
 //            setEnabled(autoPlantConfig.enabled);
 
         initializeSeeds();
 
-        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
-        PlayerBlockBreakEvents.BEFORE.register(this::beforeBlockBreak);
-        PlayerBlockBreakEvents.AFTER.register(this::afterBlockBreak);
+        registerTick(TickPhase.END, this::onUpdate);
+        beaverUtilsClient.worldChanges.subscribe(this, this::onWorldChanges);
+        AttackBlockCallback.EVENT.register(this::onAttackBlock);
     }
 
-    private boolean beforeBlockBreak(World world, PlayerEntity playerEntity, BlockPos blockPos, BlockState state, @Nullable BlockEntity blockEntity) {
-        if(isEnabled() && autoPlantConfig.preventBreakingNotFullyGrownCrops)
-            return false;
+    //Fired on the client before a block starts breaking, the block break events only ever fire on the server
+    private ActionResult onAttackBlock(PlayerEntity player, World world, Hand hand, BlockPos pos, Direction direction) {
+        if(!world.isClient || !isEnabled() || harvesting)
+            return ActionResult.PASS;
 
-        return true;
-    }
+        BlockState state = world.getBlockState(pos);
+        if(!(state.getBlock() instanceof CropBlock crop))
+            return ActionResult.PASS;
 
-    private void afterBlockBreak(World world, PlayerEntity playerEntity, BlockPos blockPos, BlockState state, @Nullable BlockEntity blockEntity) {
-        if (state.getBlock() instanceof CropBlock) {
-            //state.get(IntProperty.of("AGE", 0, 7));
-            int age = ((CropBlock) state.getBlock()).getAge(state);
-            notifier.newNotification(
-                    Notification.builder(
-                            "Block: " + BlockUtils.getBlockName(state.getBlock()) + " | AGE: " + age + " |"
-                    ).category(Categories.INFO, null).duration(120).build());
-        }
+        int age = crop.getAge(state);
+        cropNotifications.post(state, () -> "Block: " + BlockUtils.getBlockName(crop) + " | AGE: " + age + " |");
+
+        if(autoPlantConfig.preventBreakingNotFullyGrownCrops && !crop.isMature(state))
+            return ActionResult.FAIL;
+
+        return ActionResult.PASS;
     }
 
     private void onUpdate(MinecraftClient client) {
@@ -80,16 +108,158 @@ public class AutoPlant extends KeyOnOffFeature {
         if(!isEnabled())
             return;
 
+        //Only scans what came into range since the last tick, block changes are fed in through onWorldChanges.
+        //Full rescans (enabling, radius or world changes) run on the worker pool against a snapshot
+        WorkerPool workerPool = beaverUtilsClient.getWorkerPool();
+        farmlandTracker.updateInBackground(client.world, client.player.getBlockPos(), autoPlantConfig.plantRadius, workerPool);
+        if(autoPlantConfig.autoBreakCrops)
+            cropTracker.updateInBackground(client.world, client.player.getBlockPos(), autoPlantConfig.plantRadius, workerPool);
+
+        Vec3d eyePos = client.player.getEyePos();
+        double reach = client.interactionManager.getReachDistance();
+        double reachSquared = reach * reach;
+
+        //Harvesting and replanting a crop counts as one action
+        int budget = Math.max(1, autoPlantConfig.plantsPerTick);
+        //Attacking another block would abort whatever the player is mining
+        if(autoPlantConfig.autoBreakCrops && !client.interactionManager.isBreakingBlock())
+            budget = harvestCrops(client, eyePos, reachSquared, budget);
+
+        if(budget <= 0)
+            return;
+
+        //Everything in reach, nearest first
+        candidates.clear();
+        LongIterator iterator = farmlandTracker.getEmptyFarmland().iterator();
+        while(iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if(getDistanceSquared(pos, eyePos) <= reachSquared)
+                candidates.add(pos);
+        }
+
+        if(candidates.isEmpty())
+            return;
+
+        long[] sorted = candidates.elements();
+        LongArrays.quickSort(sorted, 0, candidates.size(), (a, b) -> Double.compare(
+                getDistanceSquared(a, eyePos),
+                getDistanceSquared(b, eyePos)
+        ));
+
+        for(int i = 0; i < candidates.size() && budget > 0; i++) {
+            long pos = sorted[i];
+            if(tryPlant(client, plantPos.set(pos))) {
+                //The server confirms with a block update, until then don't try this spot again
+                farmlandTracker.remove(pos);
+                budget--;
+            }
+        }
+    }
 
+    /**
+     * Breaks the fully grown crops in reach and replants the farmland under them right away
+     * @return the budget left
+     */
+    private int harvestCrops(MinecraftClient client, Vec3d eyePos, double reachSquared, int budget) {
+        long time = client.world.getTime();
+        purgeHarvestRetryTimes(time);
+
+        //Only the mature crops are looked at, however many are still growing, nearest first
+        candidates.clear();
+        LongIterator iterator = cropTracker.getMatureCrops().iterator();
+        while(iterator.hasNext()) {
+            long pos = iterator.nextLong();
+            if(getCropDistanceSquared(pos, eyePos) <= reachSquared && harvestRetryTimes.get(pos) <= time)
+                candidates.add(pos);
+        }
 
-        for(int y = -1; y <= 0; y++) {
-            for(int x = -(autoPlantConfig.plantRadius); x <= autoPlantConfig.plantRadius; x++) {
-                for(int z = -(autoPlantConfig.plantRadius); z <= autoPlantConfig.plantRadius; z++) {
-                    if(tryPlant(client, client.player.getBlockPos().add(x,y,z)))
-                        return;
-                }
+        if(candidates.isEmpty())
+            return budget;
+
+        long[] sorted = candidates.elements();
+        LongArrays.quickSort(sorted, 0, candidates.size(), (a, b) -> Double.compare(
+                getCropDistanceSquared(a, eyePos),
+                getCropDistanceSquared(b, eyePos)
+        ));
+
+        for(int i = 0; i < candidates.size() && budget > 0; i++) {
+            long pos = sorted[i];
+            //Crops break instantly, the block is already air on the client once this returns
+            harvesting = true;
+            boolean harvested;
+            try {
+                harvested = client.interactionManager.attackBlock(BlockPos.fromLong(pos), Direction.UP);
+            } finally {
+                harvesting = false;
             }
+
+            //Either the server confirms with a block update, or the crop can't be broken here (adventure mode, world border).
+            //Don't try it again until it changes. A server rejecting the break (spawn protection, claims) puts the crop back
+            //with a block update, the retry time keeps it from being attacked again every tick
+            cropTracker.remove(pos);
+            harvestRetryTimes.put(pos, time + HARVEST_RETRY_TICKS);
+            if(!harvested)
+                continue;
+
+            budget--;
+
+            if(tryPlant(client, plantPos.set(pos).move(Direction.DOWN)))
+                farmlandTracker.remove(plantPos.asLong());
+        }
+
+        return budget;
+    }
+
+    //Drops the expired retry times, once per retry period so the map stays small without scanning it every tick
+    private void purgeHarvestRetryTimes(long time) {
+        if(time < nextRetryPurge && time >= nextRetryPurge - HARVEST_RETRY_TICKS)
+            return;
+
+        nextRetryPurge = time + HARVEST_RETRY_TICKS;
+        harvestRetryTimes.long2LongEntrySet().removeIf(entry -> entry.getLongValue() <= time);
+    }
+
+    //To the top face of the farmland the crop grows on
+    private static double getCropDistanceSquared(long pos, Vec3d eyePos) {
+        return getDistanceSquared(BlockPos.offset(pos, Direction.DOWN), eyePos);
+    }
+
+    private static double getDistanceSquared(long pos, Vec3d eyePos) {
+        //To the top face of the farmland, which is what gets clicked
+        double x = BlockPos.unpackLongX(pos) + 0.5 - eyePos.x;
+        double y = BlockPos.unpackLongY(pos) + 1.0 - eyePos.y;
+        double z = BlockPos.unpackLongZ(pos) + 0.5 - eyePos.z;
+        return x * x + y * y + z * z;
+    }
+
+    @Override
+    protected void onDisable() {
+        super.onDisable();
+        //Block changes aren't tracked while disabled, start from a fresh scan next time
+        farmlandTracker.clear();
+        cropTracker.clear();
+        harvestRetryTimes.clear();
+    }
+
+    //Keeps the tracked farmland and crops up to date, only delivered while AutoPlant is enabled
+    private void onWorldChanges(WorldChangeSet changes) {
+        LongIterator iterator = changes.getUnloadedChunks().iterator();
+        while(iterator.hasNext()) {
+            long chunkPos = iterator.nextLong();
+            onChunkChanged(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos));
         }
+
+        changes.forEachLoadedChunk(chunk -> onChunkChanged(chunk.getPos().x, chunk.getPos().z));
+        changes.forEachBlockChange((pos, state) -> {
+            farmlandTracker.onBlockUpdate(pos);
+            //Growth arrives as block updates, the new state is all the crop tracker needs
+            cropTracker.onBlockUpdate(pos, state);
+        });
+    }
+
+    private void onChunkChanged(int chunkX, int chunkZ) {
+        farmlandTracker.onChunkChanged(chunkX, chunkZ);
+        cropTracker.onChunkChanged(chunkX, chunkZ);
     }
 
     public boolean tryPlant(MinecraftClient client, BlockPos pos) {
@@ -97,12 +267,28 @@ public class AutoPlant extends KeyOnOffFeature {
         if(blockState.getBlock() instanceof FarmlandBlock) {
             BlockState blockStateUp = client.world.getBlockState(pos.up());
             if(blockStateUp.getBlock() instanceof AirBlock) {
-                return tryUseSeed(client, pos, Hand.MAIN_HAND) || tryUseSeed(client, pos, Hand.OFF_HAND);
+                return tryUseSeed(client, pos, Hand.MAIN_HAND)
+                        || tryUseSeed(client, pos, Hand.OFF_HAND)
+                        || (autoPlantConfig.autoSelectSeeds && selectSeedSlot(client) && tryUseSeed(client, pos, Hand.MAIN_HAND));
             }
         }
         return false;
     }
 
+    /**
+     * Switches to a hotbar slot holding seeds, the slot change is sent to the server with the next interaction
+     * @return true if a slot with seeds got selected
+     */
+    private boolean selectSeedSlot(MinecraftClient client) {
+        PlayerInventory inventory = client.player.getInventory();
+        int slot = seedSlots.findSlot(inventory);
+        if(slot < 0 || slot == inventory.selectedSlot)
+            return false;
+
+        inventory.selectedSlot = slot;
+        return true;
+    }
+
     public boolean tryUseSeed(MinecraftClient client, BlockPos pos, Hand hand) {
         Item item = client.player.getStackInHand(hand).getItem();
         if(seeds.contains(item)) {
@@ -110,9 +296,7 @@ public class AutoPlant extends KeyOnOffFeature {
             BlockHitResult hit = new BlockHitResult(blockPos, Direction.UP, pos, false);
             client.interactionManager.interactBlock(client.player, hand, hit);
 
-            notifier.newNotification(
-                    Notification.builder("Seed Planted").category(Categories.FEATURE, this.getName()).build()
-            );
+            plantNotifications.post("Seed Planted");
 
             return true;
         }
@@ -129,10 +313,33 @@ public class AutoPlant extends KeyOnOffFeature {
 
     public void setPlantRadius(int newRadius) {
         autoPlantConfig.plantRadius = newRadius;
+        autoPlantConfig.markDirty();
     }
 
     public void setMode(Mode newMode) {
         autoPlantConfig.mode = newMode;
+        autoPlantConfig.markDirty();
+    }
+
+    public void setPlantsPerTick(int plantsPerTick) {
+        autoPlantConfig.plantsPerTick = Math.max(1, plantsPerTick);
+        autoPlantConfig.markDirty();
+    }
+
+    public void setAutoBreakCrops(boolean autoBreakCrops) {
+        autoPlantConfig.autoBreakCrops = autoBreakCrops;
+        autoPlantConfig.markDirty();
+        //Not kept up to date while off, rescanned when turned back on
+        if(!autoBreakCrops)
+            cropTracker.clear();
+    }
+
+    public boolean isAutoBreakCrops() {
+        return autoPlantConfig.autoBreakCrops;
+    }
+
+    public int getPlantsPerTick() {
+        return autoPlantConfig.plantsPerTick;
     }
 
     public int getPlantRadius() {
@@ -3,7 +3,7 @@ package dev.bebomny.beaver.beaverutils.features.features;
 import dev.bebomny.beaver.beaverutils.configuration.config.ElytraSpeedControlConfig;
 import dev.bebomny.beaver.beaverutils.configuration.gui.menus.ElytraSpeedControlMenu;
 import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.tooltip.Tooltip;
 import net.minecraft.entity.EquipmentSlot;
@@ -16,19 +16,19 @@ import net.minecraft.util.math.Vec3d;
 
 public class ElytraSpeedControl extends SimpleOnOffFeature {
 
-    private final ElytraSpeedControlConfig elytraSpeedControlConfig = config.elytraSpeedControlConfig;
+    private final ElytraSpeedControlConfig elytraSpeedControlConfig = loadSection(config.elytraSpeedControlConfig);
 
     public ElytraSpeedControl() {
         super("ElytraSpdCtrl");
 
         setEnableConfig(elytraSpeedControlConfig);
-        setOptionsMenu(new ElytraSpeedControlMenu());
+        setOptionsMenu(ElytraSpeedControlMenu::new);
         setMainToolTip(Tooltip.of(Text.of("Elytra Speed Control - Control your elytra's speed with 'w' and 's' keys! No need for fireworks!")));
 
 //        if(config.generalConfig.autoEnable)
 //            setEnabled(enableConfig.enabled);
 
-        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
+        registerTick(TickPhase.END, this::onUpdate);
     }
 
     private void onUpdate(MinecraftClient client) {
@@ -75,6 +75,7 @@ public class ElytraSpeedControl extends SimpleOnOffFeature {
 
     public void setSpeedIncrement(float newSpeedIncrement) {
         elytraSpeedControlConfig.speedIncrement = newSpeedIncrement;
+        elytraSpeedControlConfig.markDirty();
     }
 
     public float getSpeedIncrement() {
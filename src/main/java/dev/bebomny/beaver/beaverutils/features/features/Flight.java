@@ -3,8 +3,8 @@ package dev.bebomny.beaver.beaverutils.features.features;
 import dev.bebomny.beaver.beaverutils.configuration.config.FlightConfig;
 import dev.bebomny.beaver.beaverutils.configuration.gui.menus.FlightMenu;
 import dev.bebomny.beaver.beaverutils.features.KeyOnOffFeature;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import dev.bebomny.beaver.beaverutils.helpers.PacketHelper;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.block.Blocks;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.entity.player.PlayerAbilities;
@@ -15,7 +15,7 @@ import org.lwjgl.glfw.GLFW;
 
 public class Flight extends KeyOnOffFeature {
 
-    private final FlightConfig flightConfig = config.flightConfig;
+    private final FlightConfig flightConfig = loadSection(config.flightConfig);
 
     private int tickCounter;
     //private final static int TICKLIMIT = 30; //in ticks, max 80 should work on most paper servers // now set in config
@@ -27,11 +27,11 @@ public class Flight extends KeyOnOffFeature {
 
         addActivationKeybinding(GLFW.GLFW_KEY_V);
         setEnableConfig(flightConfig);
-        setOptionsMenu(new FlightMenu());
+        setOptionsMenu(FlightMenu::new);
 
         this.oldPos = new Vec3d(0.0d,100.0d,0.0d);
 
-        ClientTickEvents.START_CLIENT_TICK.register(this::onUpdate);
+        registerTick(TickPhase.START, this::onUpdate);
     }
 
     private void onUpdate(MinecraftClient client) {
@@ -101,10 +101,12 @@ public class Flight extends KeyOnOffFeature {
 
     public void setMode(Mode newMode) {
         flightConfig.flightMode = newMode;
+        flightConfig.markDirty();
     }
 
     public void setFlightSpeed(float newSpeed) {
         flightConfig.flightSpeed = newSpeed;
+        flightConfig.markDirty();
     }
 
     public float getFlightSpeed() {
@@ -3,13 +3,13 @@ package dev.bebomny.beaver.beaverutils.features.features;
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
 import dev.bebomny.beaver.beaverutils.configuration.config.FullBrightConfig;
 import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import dev.bebomny.beaver.beaverutils.mixinterface.ISimpleOption;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
 import net.minecraft.client.MinecraftClient;
 
 public class FullBright extends SimpleOnOffFeature {
 
-    FullBrightConfig fullBrightConfig = config.fullBrightConfig;
+    FullBrightConfig fullBrightConfig = loadSection(config.fullBrightConfig);
     private boolean requiresUpdate;
 
     public FullBright() {
@@ -20,7 +20,7 @@ public class FullBright extends SimpleOnOffFeature {
 //        if(config.generalConfig.autoEnable)
 //            setEnabled(fullBrightConfig.enabled);
 
-        ClientTickEvents.START_CLIENT_TICK.register(this::tryUpdateGamma);
+        registerTick(TickPhase.START, this::tryUpdateGamma);
     }
 
     private void setGamma(double newValue) {
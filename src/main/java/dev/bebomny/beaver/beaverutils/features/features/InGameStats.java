@@ -1,68 +1,110 @@
 package dev.bebomny.beaver.beaverutils.features.features;
 
 import dev.bebomny.beaver.beaverutils.configuration.config.InGameStatsConfig;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
 import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
+import dev.bebomny.beaver.beaverutils.helpers.HudText;
+import dev.bebomny.beaver.beaverutils.helpers.MovingAverage;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.gui.DrawContext;
-import net.minecraft.client.util.math.MatrixStack;
-import net.minecraft.text.Text;
 import net.minecraft.util.math.Vec3d;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class InGameStats extends SimpleOnOffFeature {
 
-    private final InGameStatsConfig inGameStatsConfig = config.inGameStatsConfig;
-    private final List<Double> distanceBuffer = new ArrayList<>();
+    private final InGameStatsConfig inGameStatsConfig = loadSection(config.inGameStatsConfig);
+    private static final int TICKS_PER_SECOND = 20;
+    //Window indices in distanceAverage
+    public static final int WINDOW_SHORT = 0;
+    public static final int WINDOW_5S = 1;
+    public static final int WINDOW_60S = 2;
+
+    //Distance moved per tick, the short window is bufferSize ticks long (1s by default)
+    private final MovingAverage distanceAverage;
     private float playerSpeed;
     private Vec3d prevPos;
+    //Only re-formatted when the speed changes at the displayed precision
+    private final HudText speedText = new HudText();
+    private double displayedSpeed = Double.NaN;
 
     public InGameStats() {
         super("InGameStats");
 
+        setFeatureFlag(FeatureFlags.IN_GAME_STATS);
         this.playerSpeed = 0.0f;
-        this.prevPos = new Vec3d(0, 0, 0);
+        this.prevPos = null;
+        this.distanceAverage = new MovingAverage(
+                Math.max(1, Math.min(inGameStatsConfig.bufferSize, 60 * TICKS_PER_SECOND)),
+                5 * TICKS_PER_SECOND,
+                60 * TICKS_PER_SECOND
+        );
         setEnableConfig(inGameStatsConfig);
 
 //        if(config.generalConfig.autoEnable)
 //            setEnabled(inGameStatsConfig.enabled);
 
-        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
+        registerTick(TickPhase.END, this::onUpdate);
     }
 
     private void onUpdate(MinecraftClient client) {
-        if (client.player == null)
+        if (client.player == null) {
+            //Don't count the jump to the spawn point of the next world
+            prevPos = null;
             return;
+        }
 
-        if(distanceBuffer.size() >= inGameStatsConfig.bufferSize)
-            distanceBuffer.remove(0);
+        if(!isEnabled())
+            return;
 
-        if(distanceBuffer.size() < inGameStatsConfig.bufferSize) {
-            double distance = client.player.getPos().distanceTo(prevPos); //idk  if i can use this // It seems i cant lolz //using direct distance now
-            distanceBuffer.add(distance);
-        }
+        Vec3d pos = client.player.getPos();
+        if(prevPos != null)
+            distanceAverage.add(pos.distanceTo(prevPos)); //using direct distance now
 
-        float completeDistance = 0;
+        playerSpeed = (float) getSpeed(WINDOW_SHORT);
+        prevPos = pos;
 
-        for (Double d : distanceBuffer)
-            completeDistance += d;
+        double roundedSpeed = roundToSignificantDigits(playerSpeed, 3);
+        if(roundedSpeed != displayedSpeed) {
+            speedText.set(String.format("%.3g", playerSpeed) + " m/s", client.textRenderer);
+            displayedSpeed = roundedSpeed;
+        }
+    }
 
+    @Override
+    protected void onDisable() {
+        super.onDisable();
+        distanceAverage.clear();
+        playerSpeed = 0.0f;
+        prevPos = null;
+        speedText.clear();
+        displayedSpeed = Double.NaN;
+    }
 
-        playerSpeed = completeDistance / distanceBuffer.size() * distanceBuffer.size();
+    //Rounds the way %.3g displays it, so the text is only rebuilt when what's shown changes
+    private static double roundToSignificantDigits(double value, int digits) {
+        if(value == 0.0 || !Double.isFinite(value))
+            return value;
 
-        prevPos = client.player.getPos();
+        double scale = Math.pow(10, digits - 1 - (int) Math.floor(Math.log10(Math.abs(value))));
+        return Math.round(value * scale) / scale;
+    }
+
+    /**
+     * @param window one of {@link #WINDOW_SHORT}, {@link #WINDOW_5S} or {@link #WINDOW_60S}
+     * @return the average player speed over the window in blocks per second
+     */
+    public double getSpeed(int window) {
+        return distanceAverage.getAverage(window) * TICKS_PER_SECOND;
     }
 
 
     public void onRenderInit(DrawContext context, float tickDelta) {
-        if(!isEnabled())
+        if(!isEnabled() || speedText.isEmpty())
             return;
-        //TODO: Fix here
-        context.drawTextWithShadow(
+
+        speedText.draw(
+                context,
                 client.textRenderer,
-                Text.of(String.format("%.3g", playerSpeed) + " m/s"),
                 (int) (client.getWindow().getScaledWidth()/2.0f + 100.0f),
                 (int) (client.getWindow().getScaledHeight() - 14.0f),
                 0xFFFFFF0F
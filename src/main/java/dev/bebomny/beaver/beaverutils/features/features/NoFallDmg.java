@@ -2,7 +2,7 @@ package dev.bebomny.beaver.beaverutils.features.features;
 
 import dev.bebomny.beaver.beaverutils.configuration.config.NoFallDmgConfig;
 import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.ClientPlayerEntity;
 import net.minecraft.entity.EquipmentSlot;
@@ -12,7 +12,7 @@ import net.minecraft.network.packet.c2s.play.PlayerMoveC2SPacket;
 
 public class NoFallDmg extends SimpleOnOffFeature {
 
-    private NoFallDmgConfig noFallDmgConfig = config.noFallDmgConfig;
+    private NoFallDmgConfig noFallDmgConfig = loadSection(config.noFallDmgConfig);
 
     public NoFallDmg() {
         super("NoFallDmg");
@@ -24,7 +24,7 @@ public class NoFallDmg extends SimpleOnOffFeature {
 
         //TODO: Add modes(onground, itp)
 
-        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
+        registerTick(TickPhase.END, this::onUpdate);
     }
 
     private void onUpdate(MinecraftClient client) {
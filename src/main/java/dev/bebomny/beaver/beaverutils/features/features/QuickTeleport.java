@@ -6,7 +6,7 @@ import org.lwjgl.glfw.GLFW;
 
 public class QuickTeleport extends TriggerFeature {
 
-    private QuickTeleportConfig quickTeleportConfig = config.quickTeleportConfig;
+    private QuickTeleportConfig quickTeleportConfig = loadSection(config.quickTeleportConfig);
     private int distance;
 
     public QuickTeleport() {
@@ -25,6 +25,7 @@ public class QuickTeleport extends TriggerFeature {
     public void setDistance(int distance) {
         this.distance = distance;
         quickTeleportConfig.distance = distance;
+        quickTeleportConfig.markDirty();
     }
 
     public int getDistance() {
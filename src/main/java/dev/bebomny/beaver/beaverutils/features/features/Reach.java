@@ -1,15 +1,17 @@
 package dev.bebomny.beaver.beaverutils.features.features;
 
 import dev.bebomny.beaver.beaverutils.configuration.config.ReachConfig;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
 import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
 
 public class Reach extends SimpleOnOffFeature {
 
-    private final ReachConfig reachConfig = config.reachConfig;
+    private final ReachConfig reachConfig = loadSection(config.reachConfig);
 
     public Reach() {
         super("Reach");
 
+        setFeatureFlag(FeatureFlags.REACH);
         setEnableConfig(reachConfig);
 
 //        if(config.generalConfig.autoEnable)
@@ -20,6 +22,7 @@ public class Reach extends SimpleOnOffFeature {
 
     public void setDistance(float newDistance) {
         reachConfig.distance = newDistance;
+        reachConfig.markDirty();
     }
 
     public float getDistance() {
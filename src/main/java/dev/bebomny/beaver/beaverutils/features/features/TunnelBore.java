@@ -7,13 +7,13 @@ import org.lwjgl.glfw.GLFW;
 
 public class TunnelBore extends KeyOnOffFeature {
 
-    private TunnelBoreConfig tunnelBoreConfig = config.tunnelBoreConfig;
+    private TunnelBoreConfig tunnelBoreConfig = loadSection(config.tunnelBoreConfig);
 
     public TunnelBore() {
         super("TunnelBore");
 
         addActivationKeybinding(GLFW.GLFW_KEY_UNKNOWN);
         setEnableConfig(tunnelBoreConfig);
-        setOptionsMenu(new TunnelBoreMenu());
+        setOptionsMenu(TunnelBoreMenu::new);
     }
 }
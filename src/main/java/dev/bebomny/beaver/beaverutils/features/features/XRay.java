@@ -2,54 +2,288 @@ package dev.bebomny.beaver.beaverutils.features.features;
 
 import dev.bebomny.beaver.beaverutils.configuration.config.XRayConfig;
 import dev.bebomny.beaver.beaverutils.configuration.gui.menus.XRayMenu;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
 import dev.bebomny.beaver.beaverutils.features.KeyOnOffFeature;
+import dev.bebomny.beaver.beaverutils.helpers.BlockLookupTable;
+import dev.bebomny.beaver.beaverutils.helpers.BlockPositionIndex;
 import dev.bebomny.beaver.beaverutils.helpers.BlockUtils;
+import dev.bebomny.beaver.beaverutils.helpers.BoxBatchRenderer;
+import dev.bebomny.beaver.beaverutils.helpers.SectionRebuildScheduler;
+import dev.bebomny.beaver.beaverutils.helpers.WorldChangeSet;
+import dev.bebomny.beaver.beaverutils.profiler.LatencyHistogram;
+import dev.bebomny.beaver.beaverutils.profiler.ProfilerCounter;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderContext;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
 import net.minecraft.block.Block;
 import net.minecraft.block.Blocks;
+import net.minecraft.util.math.BlockPos;
+import org.jetbrains.annotations.Nullable;
 import org.lwjgl.glfw.GLFW;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 public class XRay extends KeyOnOffFeature {
 
-    private final XRayConfig xRayConfig = config.xRayConfig;
+    //XRay states cached per BlockState in BlockStateMixin
+    public static final byte STATE_DISABLED = 0;
+    public static final byte STATE_HIDDEN = 1;
+    public static final byte STATE_VISIBLE = 2;
+
+    //Bumped whenever a cached state could be stale, every BlockState recomputes its state on the next read
+    private static volatile int stateGeneration = 1;
+
+    private final XRayConfig xRayConfig = loadSection(config.xRayConfig);
+    //Immutable snapshot of the interesting blocks, read by the chunk builder threads through computeState
+    //Only replaced from the client thread, the volatile write publishes it to every reader
+    private volatile BlockLookupTable interestingBlocks;
+    private final SectionRebuildScheduler rebuildScheduler;
+    //Positions of every interesting block in the loaded chunks, only kept while XRay is enabled
+    //Both are created on the first enable, see initialize()
+    private BlockPositionIndex blockIndex;
+    //Outlines of the indexed blocks, only re-uploaded when the index changes
+    private BoxBatchRenderer highlightRenderer;
+    private int highlightedIndexVersion = -1;
+
+    //Calls into the XRay state from the mixins, summed over every hook and thread
+    public final ProfilerCounter stateReads = beaverUtilsClient.profiler.counter("XRay State Reads");
+    public final ProfilerCounter stateComputes = beaverUtilsClient.profiler.counter("XRay State Computes");
 
     public XRay() {
         super("XRay"); //GLFW.GLFW_KEY_X
 
+        setFeatureFlag(FeatureFlags.XRAY);
+        this.rebuildScheduler = new SectionRebuildScheduler(client, () -> xRayConfig.rebuildBudgetPerFrame);
+
         addActivationKeybinding(GLFW.GLFW_KEY_X); //88
-        setOptionsMenu(new XRayMenu());
+        setOptionsMenu(XRayMenu::new);
 
         //load config values?
         //if (config.generalConfig.autoEnable)
         //    setEnabled(xRayConfig.enable);
 
         //load interesting blocks
-        if (xRayConfig.interestingBlocksAsCollection.isEmpty())
+        removeNullInterestingBlocks();
+        if (xRayConfig.interestingBlocksAsCollection.isEmpty()) {
             xRayConfig.interestingBlocksAsCollection = populateInterestingBlocksWithStrings();
+            xRayConfig.markDirty();
+        }
+
+        recompileInterestingBlocks();
+        beaverUtilsClient.configHandler.addReloadListener(xRayConfig, this::onConfigReloaded);
+        beaverUtilsClient.worldChanges.subscribe(this, this::onWorldChanges);
 
         LOGGER.atInfo().log("XRAY PRESENT!!! Is IRON_ORE Interesting?(Should be? Yes) but is it? " + isInterestingBlock(Blocks.IRON_ORE));
+
+        WorldRenderEvents.LAST.register(this::onWorldRender);
+    }
+
+    private void onWorldRender(WorldRenderContext context) {
+        if (!isEnabled() || !xRayConfig.highlightBlocks || client.player == null)
+            return;
+
+        long start = LatencyHistogram.start();
+        if (blockIndex.getVersion() != highlightedIndexVersion) {
+            BlockPos origin = client.player.getBlockPos();
+            highlightRenderer.begin(origin.getX(), origin.getY(), origin.getZ());
+            blockIndex.forEachPosition(pos -> highlightRenderer.add(
+                    pos.getX(), pos.getY(), pos.getZ(),
+                    pos.getX() + 1, pos.getY() + 1, pos.getZ() + 1
+            ));
+            highlightRenderer.upload();
+            highlightedIndexVersion = blockIndex.getVersion();
+        }
+
+        highlightRenderer.draw(context.matrixStack(), context.camera().getPos(), 1.0f, 0.8f, 0.2f, 0.8f);
+        beaverUtilsClient.profiler.renderXRayHighlight.stop(start);
+    }
+
+    public void setHighlightBlocks(boolean highlightBlocks) {
+        xRayConfig.highlightBlocks = highlightBlocks;
+        xRayConfig.markDirty();
+
+        if (!highlightBlocks && highlightRenderer != null) {
+            highlightRenderer.clear();
+            highlightedIndexVersion = -1;
+        }
+    }
+
+    public boolean isHighlightBlocks() {
+        return xRayConfig.highlightBlocks;
     }
 
     public boolean isInterestingBlock(Block block) {
-        return xRayConfig.interestingBlocksAsCollection.contains(BlockUtils.getBlockName(block));
+        return interestingBlocks.contains(block);
+    }
+
+    /**
+     * Computes the uncached XRay state of a block, BlockStates cache the result until the generation changes
+     * @see #getStateGeneration()
+     */
+    public byte computeState(Block block) {
+        stateComputes.increment();
+        if (!isEnabled())
+            return STATE_DISABLED;
+
+        return isInterestingBlock(block) ? STATE_VISIBLE : STATE_HIDDEN;
+    }
+
+    public static int getStateGeneration() {
+        return stateGeneration;
+    }
+
+    //Only ever called from the client thread, so the non-atomic increment is fine
+    private static void invalidateStateCache() {
+        stateGeneration++;
+    }
+
+    /**
+     * Adds a block to the interesting blocks list and recompiles the lookup table.
+     * The list is copied on write, readers on other threads keep iterating their own snapshot.
+     * Must be called from the client thread.
+     * @return {@code false} if the block was already present
+     */
+    public boolean addInterestingBlock(Block block) {
+        String blockName = BlockUtils.getBlockName(block);
+        if (interestingBlocks.getBlockNames().contains(blockName))
+            return false;
+
+        List<String> newList = new ArrayList<>(interestingBlocks.getBlockNames());
+        newList.add(blockName);
+        setInterestingBlocks(newList);
+        rebuildSectionsContaining(block);
+        return true;
+    }
+
+    /**
+     * Removes a block from the interesting blocks list and recompiles the lookup table.
+     * The list is copied on write, readers on other threads keep iterating their own snapshot.
+     * Must be called from the client thread.
+     * @return {@code false} if the block was not present
+     */
+    public boolean removeInterestingBlock(Block block) {
+        List<String> newList = new ArrayList<>(interestingBlocks.getBlockNames());
+        if (!newList.remove(BlockUtils.getBlockName(block)))
+            return false;
+
+        setInterestingBlocks(newList);
+        rebuildSectionsContaining(block);
+        return true;
+    }
+
+    /**
+     * @return an unmodifiable snapshot of the interesting blocks list, safe to iterate from any thread
+     */
+    public List<String> getInterestingBlockNames() {
+        return interestingBlocks.getBlockNames();
+    }
+
+    private void setInterestingBlocks(Collection<String> newBlocks) {
+        xRayConfig.interestingBlocksAsCollection = newBlocks;
+        xRayConfig.markDirty();
+        recompileInterestingBlocks();
+
+        if (isEnabled())
+            blockIndex.rebuild();
+    }
+
+    //The config file was edited while the game is running, the new values are already in xRayConfig
+    private void onConfigReloaded() {
+        if (!xRayConfig.highlightBlocks && highlightRenderer != null) {
+            highlightRenderer.clear();
+            highlightedIndexVersion = -1;
+        }
+
+        removeNullInterestingBlocks();
+        BlockLookupTable oldBlocks = interestingBlocks;
+        if (oldBlocks.getBlockNames().equals(List.copyOf(xRayConfig.interestingBlocksAsCollection)))
+            return;
+
+        recompileInterestingBlocks();
+        BlockLookupTable newBlocks = interestingBlocks;
+
+        if (!isEnabled())
+            return;
+
+        blockIndex.rebuild();
+        //Only the sections with a block that went from hidden to visible or back need a new mesh
+        rebuildScheduler.schedule(state -> oldBlocks.contains(state) != newBlocks.contains(state));
+    }
+
+    /**
+     * @return the index of the interesting blocks, {@code null} until XRay is enabled for the first time
+     */
+    public @Nullable BlockPositionIndex getBlockIndex() {
+        return blockIndex;
+    }
+
+    //Keeps the block index up to date, only delivered while XRay is enabled
+    private void onWorldChanges(WorldChangeSet changes) {
+        if (blockIndex != null)
+            blockIndex.onWorldChanges(changes);
+    }
+
+    //A hand-edited file can set the list, or some of its entries, to null
+    private void removeNullInterestingBlocks() {
+        Collection<String> blocks = xRayConfig.interestingBlocksAsCollection;
+        if (blocks != null && !blocks.contains(null))
+            return;
+
+        List<String> cleaned = new ArrayList<>();
+        if (blocks != null) {
+            for (String block : blocks) {
+                if (block != null)
+                    cleaned.add(block);
+            }
+        }
+        xRayConfig.interestingBlocksAsCollection = cleaned;
+    }
+
+    //Only call when the list changes, lookups go through the compiled table
+    private void recompileInterestingBlocks() {
+        this.interestingBlocks = BlockLookupTable.compile(xRayConfig.interestingBlocksAsCollection);
+        invalidateStateCache();
+    }
+
+    @Override
+    protected void initialize() {
+        this.blockIndex = new BlockPositionIndex("XRayIndex", () -> interestingBlocks);
+        this.highlightRenderer = new BoxBatchRenderer(1024);
     }
 
     @Override
     protected void onEnable() {
         super.onEnable();
+        invalidateStateCache();
         reloadRenderer();
+        blockIndex.start();
     }
 
     @Override
     protected void onDisable() {
         super.onDisable();
+        invalidateStateCache();
         reloadRenderer();
+        blockIndex.stop();
+        highlightRenderer.clear();
+        highlightedIndexVersion = -1;
     }
 
     private void reloadRenderer() {
-        client.worldRenderer.reload();
+        if (client.world == null)
+            return;
+
+        if (xRayConfig.incrementalRebuild)
+            rebuildScheduler.scheduleAll();
+        else
+            client.worldRenderer.reload();
+    }
+
+    //Only the sections which have the block in their palette can look any different
+    private void rebuildSectionsContaining(Block block) {
+        if (isEnabled())
+            rebuildScheduler.schedule(state -> state.isOf(block));
     }
 
     private Collection<String> populateInterestingBlocksWithStrings() {
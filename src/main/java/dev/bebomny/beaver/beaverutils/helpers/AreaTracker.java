@@ -0,0 +1,242 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+
+/**
+ * Base for trackers that keep a set of interesting positions in a box around a center position.
+ * The box spans {@code radius} blocks horizontally and a fixed range of layers relative to the center.
+ * <p>
+ * When the center moves only the newly covered positions are checked, and block changes are fed in as they happen,
+ * so the per-tick cost doesn't depend on the size of the area.
+ * Full rescans can run in the background against a {@link WorldSnapshot}, see {@link #updateInBackground}.
+ */
+public abstract class AreaTracker<T extends AreaTracker<T>> {
+
+    protected final BlockPos.Mutable mutable = new BlockPos.Mutable();
+    //Layers covered, relative to the center
+    private final int minYOffset;
+    private final int maxYOffset;
+
+    protected BlockView world;
+    private boolean tracking;
+    private int centerX;
+    private int centerY;
+    private int centerZ;
+    private int radius;
+
+    //A full rescan running on the worker pool, see updateInBackground
+    private boolean rescanning;
+    private int rescanId;
+    private World rescanWorld;
+    private int rescanRadius;
+    //Changes that came in while rescanning, the snapshot might have been taken before them
+    private final LongOpenHashSet changedWhileRescanning = new LongOpenHashSet();
+    private final LongOpenHashSet chunksChangedWhileRescanning = new LongOpenHashSet();
+
+    protected AreaTracker(int minYOffset, int maxYOffset) {
+        this.minYOffset = minYOffset;
+        this.maxYOffset = maxYOffset;
+    }
+
+    /**
+     * Moves the tracked area, only the positions that weren't covered before are scanned
+     */
+    public void update(BlockView world, BlockPos center, int radius) {
+        boolean fullRescan = !tracking || world != this.world || radius != this.radius;
+
+        if (!fullRescan && center.getX() == centerX && center.getY() == centerY && center.getZ() == centerZ)
+            return;
+
+        int oldX = centerX, oldY = centerY, oldZ = centerZ;
+
+        this.world = world;
+        this.centerX = center.getX();
+        this.centerY = center.getY();
+        this.centerZ = center.getZ();
+        this.radius = radius;
+
+        if (fullRescan) {
+            clearTracked();
+            this.tracking = true;
+        } else {
+            removeOutsideArea();
+        }
+
+        for (int y = centerY + minYOffset; y <= centerY + maxYOffset; y++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                    if (!fullRescan && isInArea(x, y, z, oldX, oldY, oldZ))
+                        continue;
+
+                    check(x, y, z);
+                }
+            }
+        }
+    }
+
+    /**
+     * Like {@link #update}, but a full rescan (first update, another world or radius) runs on the worker pool
+     * against a {@link WorldSnapshot} of the area. Nothing is tracked until its result is back on the client thread,
+     * changes that come in meanwhile are re-checked once it is. Moving the center only scans on the calling thread, as in {@link #update}.
+     * Must be called from the client thread.
+     */
+    public void updateInBackground(World world, BlockPos center, int radius, WorkerPool workerPool) {
+        if (tracking && world == this.world && radius == this.radius) {
+            update(world, center, radius);
+            return;
+        }
+
+        //Already on its way, the center is moved from the rescanned one once it's done
+        if (rescanning && world == rescanWorld && radius == rescanRadius)
+            return;
+
+        clear();
+        this.rescanning = true;
+        this.rescanWorld = world;
+        this.rescanRadius = radius;
+        int id = rescanId;
+
+        //One layer above the area too, trackers can look at the block above a position
+        WorldSnapshot snapshot = WorldSnapshot.capture(world,
+                center.add(-radius, minYOffset, -radius),
+                center.add(radius, maxYOffset + 1, radius));
+        BlockPos rescanCenter = center.toImmutable();
+        T rescanned = createEmpty();
+
+        boolean submitted = workerPool.submit(() -> {
+            rescanned.update(snapshot, rescanCenter, radius);
+            return rescanned;
+        }, result -> finishRescan(id, result));
+
+        if (!submitted) {
+            this.rescanning = false;
+            update(world, center, radius);
+        }
+    }
+
+    private void finishRescan(int id, T rescanned) {
+        //Cleared or restarted in the meantime
+        if (!rescanning || id != rescanId)
+            return;
+
+        this.rescanning = false;
+        this.world = rescanWorld;
+        this.rescanWorld = null;
+        this.centerX = rescanned.centerX;
+        this.centerY = rescanned.centerY;
+        this.centerZ = rescanned.centerZ;
+        this.radius = rescanned.radius;
+        this.tracking = true;
+        copyTracked(rescanned);
+
+        LongIterator iterator = chunksChangedWhileRescanning.iterator();
+        while (iterator.hasNext()) {
+            long chunkPos = iterator.nextLong();
+            onChunkChanged(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos));
+        }
+
+        iterator = changedWhileRescanning.iterator();
+        while (iterator.hasNext())
+            recheck(BlockPos.fromLong(iterator.nextLong()));
+
+        chunksChangedWhileRescanning.clear();
+        changedWhileRescanning.clear();
+    }
+
+    /**
+     * Re-checks the tracked positions inside a chunk, call after it loaded or unloaded
+     */
+    public void onChunkChanged(int chunkX, int chunkZ) {
+        if (rescanning)
+            chunksChangedWhileRescanning.add(ChunkPos.toLong(chunkX, chunkZ));
+
+        if (!tracking)
+            return;
+
+        int minX = Math.max(chunkX << 4, centerX - radius);
+        int maxX = Math.min((chunkX << 4) + 15, centerX + radius);
+        int minZ = Math.max(chunkZ << 4, centerZ - radius);
+        int maxZ = Math.min((chunkZ << 4) + 15, centerZ + radius);
+
+        for (int y = centerY + minYOffset; y <= centerY + maxYOffset; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                for (int z = minZ; z <= maxZ; z++)
+                    check(x, y, z);
+            }
+        }
+    }
+
+    public void clear() {
+        clearTracked();
+        this.tracking = false;
+        this.world = null;
+        //Whatever rescan is still running is ignored once it's done
+        this.rescanning = false;
+        this.rescanWorld = null;
+        this.rescanId++;
+        changedWhileRescanning.clear();
+        chunksChangedWhileRescanning.clear();
+    }
+
+    protected boolean isTracking() {
+        return tracking;
+    }
+
+    /**
+     * Subclasses call this for every block change before anything else
+     * @return true if the change was only remembered for the running rescan and shouldn't be applied now
+     */
+    protected boolean deferWhileRescanning(BlockPos pos) {
+        if (!rescanning)
+            return false;
+
+        changedWhileRescanning.add(pos.asLong());
+        return true;
+    }
+
+    protected boolean isInArea(int x, int y, int z) {
+        return isInArea(x, y, z, centerX, centerY, centerZ);
+    }
+
+    protected boolean isInArea(long pos) {
+        return isInArea(BlockPos.unpackLongX(pos), BlockPos.unpackLongY(pos), BlockPos.unpackLongZ(pos));
+    }
+
+    /**
+     * Looks the position up in {@link #world} and starts or stops tracking it
+     */
+    protected abstract void check(int x, int y, int z);
+
+    /**
+     * Drops the tracked positions that aren't {@link #isInArea(long) in the area} anymore, called after the center moved
+     */
+    protected abstract void removeOutsideArea();
+
+    protected abstract void clearTracked();
+
+    /**
+     * @return a tracker of the same kind that tracks nothing, used to rescan in the background
+     */
+    protected abstract T createEmpty();
+
+    /**
+     * Replaces the tracked positions with the ones of a tracker that finished a background rescan
+     */
+    protected abstract void copyTracked(T from);
+
+    /**
+     * Re-checks what a change at the position affects against {@link #world}, like a block update would
+     */
+    protected abstract void recheck(BlockPos pos);
+
+    private boolean isInArea(int x, int y, int z, int areaCenterX, int areaCenterY, int areaCenterZ) {
+        return y >= areaCenterY + minYOffset && y <= areaCenterY + maxYOffset
+                && Math.abs(x - areaCenterX) <= radius
+                && Math.abs(z - areaCenterZ) <= radius;
+    }
+}
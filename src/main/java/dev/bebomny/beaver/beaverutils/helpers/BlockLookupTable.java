@@ -0,0 +1,74 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A compiled set of blocks, indexed by the raw registry id of the block.
+ * Lookups are a single array read and don't allocate, which makes it safe to use from hot paths like chunk meshing.
+ * The table is immutable, including the names it was compiled from, so it can be shared freely between threads.
+ * Compile a new one when the source list changes.
+ */
+public class BlockLookupTable {
+
+    private final boolean[] table;
+    private final int size;
+    private final List<String> blockNames;
+
+    private BlockLookupTable(boolean[] table, int size, List<String> blockNames) {
+        this.table = table;
+        this.size = size;
+        this.blockNames = blockNames;
+    }
+
+    /**
+     * Compiles a lookup table from block names (e.g. {@code "minecraft:diamond_ore"}).
+     * Names which are not valid identifiers or aren't registered blocks are skipped.
+     * @param blockNames names of the blocks to include
+     * @return a new {@code BlockLookupTable}
+     */
+    public static BlockLookupTable compile(Collection<String> blockNames) {
+        boolean[] table = new boolean[Registries.BLOCK.size()];
+        int size = 0;
+
+        for (String name : blockNames) {
+            Identifier identifier = Identifier.tryParse(name);
+            if (identifier == null || !Registries.BLOCK.containsId(identifier))
+                continue;
+
+            int rawId = Registries.BLOCK.getRawId(Registries.BLOCK.get(identifier));
+            if (rawId < 0 || rawId >= table.length || table[rawId])
+                continue;
+
+            table[rawId] = true;
+            size++;
+        }
+
+        return new BlockLookupTable(table, size, List.copyOf(blockNames));
+    }
+
+    public boolean contains(Block block) {
+        int rawId = Registries.BLOCK.getRawId(block);
+        return rawId >= 0 && rawId < table.length && table[rawId];
+    }
+
+    public boolean contains(BlockState state) {
+        return contains(state.getBlock());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return an unmodifiable copy of the names this table was compiled from, including the ones that were skipped
+     */
+    public List<String> getBlockNames() {
+        return blockNames;
+    }
+}
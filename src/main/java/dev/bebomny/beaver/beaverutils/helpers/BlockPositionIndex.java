@@ -0,0 +1,441 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.HeightLimitView;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the positions of every block matching a {@link BlockLookupTable} in the loaded chunks, grouped per chunk section.
+ * Fed by a {@link WorldChangeSet} every tick: loaded chunks are scanned on the shared {@link WorkerPool}, unloaded ones are dropped
+ * and single block updates are applied directly. A {@link #rebuild()} scans a {@link WorldSnapshot} of every loaded chunk in a single job.
+ * Queries only touch the matching positions instead of all 16³ blocks of a section.
+ * <p>
+ * Everything except the scanning itself happens on the client thread, so the index needs no locking.
+ */
+public class BlockPositionIndex {
+
+    //Loaded chunks are scanned this many per job, so bursts of loads (e.g. a teleport) stay well within the worker pool's queue
+    private static final int CHUNKS_PER_JOB = 16;
+
+    private final MinecraftClient client;
+    private final Logger LOGGER;
+    private final Supplier<BlockLookupTable> tableSupplier;
+    private final WorkerPool workerPool;
+
+    //Section position (ChunkSectionPos.asLong) -> local positions packed like ChunkSectionPos.packLocal
+    //The arrays are never modified in place, so they can be handed out to readers
+    private final Long2ObjectOpenHashMap<short[]> sections = new Long2ObjectOpenHashMap<>();
+    //Chunks (ChunkPos.toLong) with a scan in flight -> id of the latest scan, and the ones that got block updates while their scan was running
+    private final Long2IntOpenHashMap pendingChunks = new Long2IntOpenHashMap();
+    private final LongOpenHashSet staleChunks = new LongOpenHashSet();
+    //Chunks whose scan didn't fit in the worker pool's queue, retried from a tick
+    private final LongOpenHashSet droppedChunks = new LongOpenHashSet();
+
+    private boolean active;
+    private ClientWorld indexedWorld;
+    private int totalCount;
+    //Bumped on every change, lets consumers (e.g. renderers) know when to refresh
+    private int version;
+    private int lastScanId;
+
+    public BlockPositionIndex(String name, Supplier<BlockLookupTable> tableSupplier) {
+        this.client = MinecraftClient.getInstance();
+        this.LOGGER = BeaverUtilsClient.getInstance().getLogger(name);
+        this.tableSupplier = tableSupplier;
+        this.workerPool = BeaverUtilsClient.getInstance().getWorkerPool();
+
+        BeaverUtilsClient.getInstance().featureHandler.registerTick(name + " Retries", null, TickPhase.START, 20, this::retryDroppedChunks);
+    }
+
+    /**
+     * Starts tracking and indexes every chunk that is already loaded
+     */
+    public void start() {
+        this.active = true;
+        rebuild();
+    }
+
+    /**
+     * Stops tracking and frees the whole index
+     */
+    public void stop() {
+        this.active = false;
+        clear();
+    }
+
+    /**
+     * Drops the index and rescans every loaded chunk, call when the lookup table changes
+     */
+    public void rebuild() {
+        clear();
+
+        ClientWorld world = client.world;
+        if (!active || world == null || client.player == null)
+            return;
+
+        LOGGER.atInfo().log("Rebuilding block index");
+
+        this.indexedWorld = world;
+        BlockLookupTable table = tableSupplier.get();
+        ChunkPos center = client.player.getChunkPos();
+        //The client keeps a few chunks more than the view distance loaded
+        int radius = client.options.getClampedViewDistance() + 3;
+
+        //Only sections whose palette can contain a match are copied, a single job scans them all in parallel
+        WorldSnapshot snapshot = WorldSnapshot.capture(world, center, radius, table::contains);
+
+        int scanId = ++lastScanId;
+        LongArrayList chunkKeys = new LongArrayList();
+        for (int chunkX = center.x - radius; chunkX <= center.x + radius; chunkX++) {
+            for (int chunkZ = center.z - radius; chunkZ <= center.z + radius; chunkZ++) {
+                if (world.getChunkManager().getWorldChunk(chunkX, chunkZ, false) == null)
+                    continue;
+
+                long chunkKey = ChunkPos.toLong(chunkX, chunkZ);
+                pendingChunks.put(chunkKey, scanId);
+                chunkKeys.add(chunkKey);
+            }
+        }
+
+        boolean submitted = workerPool.submit(() -> snapshot.scanSections(section -> {
+            short[] positions = section.findAll(table::contains);
+            return positions.length > 0 ? positions : null;
+        }), result -> applyRebuild(chunkKeys, scanId, result));
+
+        //The queue is full, retryDroppedChunks scans them chunk by chunk once it had time to drain
+        if (!submitted) {
+            for (int i = 0; i < chunkKeys.size(); i++) {
+                pendingChunks.remove(chunkKeys.getLong(i));
+                droppedChunks.add(chunkKeys.getLong(i));
+            }
+        }
+    }
+
+    private void applyRebuild(LongArrayList chunkKeys, int scanId, Long2ObjectOpenHashMap<short[]> result) {
+        for (Long2ObjectMap.Entry<short[]> entry : result.long2ObjectEntrySet()) {
+            long sectionPos = entry.getLongKey();
+            long chunkKey = ChunkPos.toLong(ChunkSectionPos.unpackX(sectionPos), ChunkSectionPos.unpackZ(sectionPos));
+            //Cleared, unloaded or rescanned while the scan was running, or got block updates the snapshot doesn't have
+            if (pendingChunks.get(chunkKey) != scanId || staleChunks.contains(chunkKey))
+                continue;
+
+            sections.put(sectionPos, entry.getValue());
+            totalCount += entry.getValue().length;
+        }
+
+        List<WorldChunk> staleChunkList = new ArrayList<>();
+        for (int i = 0; i < chunkKeys.size(); i++) {
+            long chunkKey = chunkKeys.getLong(i);
+            if (pendingChunks.get(chunkKey) != scanId)
+                continue;
+
+            pendingChunks.remove(chunkKey);
+            if (staleChunks.remove(chunkKey)) {
+                WorldChunk chunk = indexedWorld.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkKey), ChunkPos.getPackedZ(chunkKey), false);
+                if (chunk != null)
+                    staleChunkList.add(chunk);
+            }
+        }
+        version++;
+
+        if (!staleChunkList.isEmpty())
+            scanChunks(indexedWorld, staleChunkList);
+    }
+
+    public void clear() {
+        sections.clear();
+        pendingChunks.clear();
+        staleChunks.clear();
+        droppedChunks.clear();
+        this.indexedWorld = null;
+        this.totalCount = 0;
+        this.version++;
+    }
+
+    /**
+     * Updates a single position, call after the block at {@code pos} changed on the client
+     */
+    public void onBlockUpdate(BlockPos pos, BlockState state) {
+        if (!active || client.world != indexedWorld)
+            return;
+
+        long chunkPos = ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4);
+        if (pendingChunks.containsKey(chunkPos)) {
+            //The running scan copied the section before this update, rescan once it's done
+            staleChunks.add(chunkPos);
+            return;
+        }
+
+        long sectionPos = ChunkSectionPos.toLong(pos);
+        short localPos = ChunkSectionPos.packLocal(pos);
+        short[] positions = sections.get(sectionPos);
+        int index = positions == null ? -1 : indexOf(positions, localPos);
+        boolean matches = tableSupplier.get().contains(state);
+
+        if (matches && index < 0) {
+            short[] newPositions = positions == null ? new short[1] : Arrays.copyOf(positions, positions.length + 1);
+            newPositions[newPositions.length - 1] = localPos;
+            sections.put(sectionPos, newPositions);
+            totalCount++;
+            version++;
+        } else if (!matches && index >= 0) {
+            if (positions.length == 1) {
+                sections.remove(sectionPos);
+            } else {
+                short[] newPositions = new short[positions.length - 1];
+                System.arraycopy(positions, 0, newPositions, 0, index);
+                System.arraycopy(positions, index + 1, newPositions, index, positions.length - index - 1);
+                sections.put(sectionPos, newPositions);
+            }
+            totalCount--;
+            version++;
+        }
+    }
+
+    /**
+     * Applies the changes of a tick, see {@link WorldChangeStream}
+     */
+    public void onWorldChanges(WorldChangeSet changes) {
+        if (!active)
+            return;
+
+        ClientWorld world = changes.getWorld();
+        if (world != indexedWorld) {
+            //Everything indexed belongs to the old world, the new world's chunks come in as loads
+            clear();
+            this.indexedWorld = world;
+        }
+
+        if (world == null)
+            return;
+
+        LongIterator iterator = changes.getUnloadedChunks().iterator();
+        while (iterator.hasNext())
+            onChunkUnload(world, iterator.nextLong());
+
+        List<WorldChunk> loadedChunks = new ArrayList<>();
+        changes.forEachLoadedChunk(loadedChunks::add);
+        scanChunks(world, loadedChunks);
+        changes.forEachBlockChange(this::onBlockUpdate);
+    }
+
+    private void onChunkUnload(ClientWorld world, long chunkPos) {
+        pendingChunks.remove(chunkPos);
+        staleChunks.remove(chunkPos);
+        droppedChunks.remove(chunkPos);
+        removeChunkSections(world, ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos));
+    }
+
+    //Scans the chunks in batches, one background job per batch
+    private void scanChunks(ClientWorld world, List<WorldChunk> chunks) {
+        if (world != indexedWorld) {
+            clear();
+            this.indexedWorld = world;
+        }
+
+        BlockLookupTable table = tableSupplier.get();
+        List<ChunkScan> batch = new ArrayList<>();
+
+        for (WorldChunk chunk : chunks) {
+            ChunkScan scan = prepareScan(chunk, table);
+            if (scan == null)
+                continue;
+
+            batch.add(scan);
+            if (batch.size() == CHUNKS_PER_JOB) {
+                submit(batch, table);
+                batch = new ArrayList<>();
+            }
+        }
+
+        if (!batch.isEmpty())
+            submit(batch, table);
+    }
+
+    //Copies the sections to scan and drops what the chunk had indexed, returns null if there's nothing to scan
+    private @Nullable ChunkScan prepareScan(WorldChunk chunk, BlockLookupTable table) {
+        ChunkPos chunkPos = chunk.getPos();
+        ChunkSection[] sectionArray = chunk.getSectionArray();
+        List<SectionSnapshot> snapshots = new ArrayList<>();
+
+        //Copying is cheap and only done for sections that can contain a match according to their palette
+        for (int i = 0; i < sectionArray.length; i++) {
+            ChunkSection section = sectionArray[i];
+            if (section.isEmpty() || !section.hasAny(table::contains))
+                continue;
+
+            long sectionPos = ChunkSectionPos.asLong(chunkPos.x, chunk.sectionIndexToCoord(i), chunkPos.z);
+            snapshots.add(SectionSnapshot.of(section, sectionPos));
+        }
+
+        long chunkKey = chunkPos.toLong();
+        removeChunkSections(chunk, chunkPos.x, chunkPos.z);
+        droppedChunks.remove(chunkKey);
+        if (snapshots.isEmpty()) {
+            //Nothing to scan, an older scan still in flight must not write its positions back
+            pendingChunks.remove(chunkKey);
+            staleChunks.remove(chunkKey);
+            return null;
+        }
+
+        int scanId = ++lastScanId;
+        pendingChunks.put(chunkKey, scanId);
+        return new ChunkScan(chunk, chunkKey, scanId, snapshots);
+    }
+
+    private void submit(List<ChunkScan> batch, BlockLookupTable table) {
+        boolean submitted = workerPool.submit(() -> {
+            List<Long2ObjectOpenHashMap<short[]>> results = new ArrayList<>(batch.size());
+            for (ChunkScan scan : batch)
+                results.add(scan.scan(table));
+            return results;
+        }, results -> {
+            for (int i = 0; i < batch.size(); i++)
+                applyScan(batch.get(i), results.get(i));
+        });
+
+        //The queue is full, retryDroppedChunks submits them again once it had time to drain
+        if (!submitted) {
+            for (ChunkScan scan : batch) {
+                pendingChunks.remove(scan.chunkKey());
+                droppedChunks.add(scan.chunkKey());
+            }
+        }
+    }
+
+    private void applyScan(ChunkScan scan, Long2ObjectOpenHashMap<short[]> result) {
+        //Cleared, stopped, unloaded or rescanned while the scan was running
+        if (pendingChunks.get(scan.chunkKey()) != scan.scanId())
+            return;
+
+        pendingChunks.remove(scan.chunkKey());
+
+        if (staleChunks.remove(scan.chunkKey())) {
+            scanChunks(indexedWorld, List.of(scan.chunk()));
+            return;
+        }
+
+        for (Long2ObjectMap.Entry<short[]> entry : result.long2ObjectEntrySet()) {
+            sections.put(entry.getLongKey(), entry.getValue());
+            totalCount += entry.getValue().length;
+        }
+        version++;
+    }
+
+    private void retryDroppedChunks(MinecraftClient client) {
+        if (!active || droppedChunks.isEmpty() || client.world != indexedWorld)
+            return;
+
+        List<WorldChunk> chunks = new ArrayList<>(droppedChunks.size());
+        LongIterator iterator = droppedChunks.iterator();
+        while (iterator.hasNext()) {
+            long chunkPos = iterator.nextLong();
+            WorldChunk chunk = indexedWorld.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos), false);
+            if (chunk != null)
+                chunks.add(chunk);
+        }
+
+        droppedChunks.clear();
+        scanChunks(indexedWorld, chunks);
+    }
+
+    private void removeChunkSections(HeightLimitView world, int chunkX, int chunkZ) {
+        for (int sectionY = world.getBottomSectionCoord(); sectionY < world.getTopSectionCoord(); sectionY++) {
+            short[] removed = sections.remove(ChunkSectionPos.asLong(chunkX, sectionY, chunkZ));
+            if (removed != null) {
+                totalCount -= removed.length;
+                version++;
+            }
+        }
+    }
+
+    private static int indexOf(short[] positions, short localPos) {
+        for (int i = 0; i < positions.length; i++) {
+            if (positions[i] == localPos)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Calls the consumer for every indexed position. The BlockPos is reused between calls, copy it with {@code toImmutable()} to keep it.
+     */
+    public void forEachPosition(Consumer<BlockPos> consumer) {
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+        for (Long2ObjectMap.Entry<short[]> entry : sections.long2ObjectEntrySet())
+            forEachPosition(entry.getLongKey(), entry.getValue(), mutable, consumer);
+    }
+
+    /**
+     * Calls the consumer for every indexed position in a single section, the BlockPos is reused between calls.
+     * @param sectionPos the section position as in {@link ChunkSectionPos#asLong(int, int, int)}
+     */
+    public void forEachPositionInSection(long sectionPos, Consumer<BlockPos> consumer) {
+        short[] positions = sections.get(sectionPos);
+        if (positions != null)
+            forEachPosition(sectionPos, positions, new BlockPos.Mutable(), consumer);
+    }
+
+    private static void forEachPosition(long sectionPos, short[] positions, BlockPos.Mutable mutable, Consumer<BlockPos> consumer) {
+        int baseX = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackX(sectionPos));
+        int baseY = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackY(sectionPos));
+        int baseZ = ChunkSectionPos.getBlockCoord(ChunkSectionPos.unpackZ(sectionPos));
+
+        for (short localPos : positions) {
+            mutable.set(baseX + (localPos >>> 8 & 15), baseY + (localPos & 15), baseZ + (localPos >>> 4 & 15));
+            consumer.accept(mutable);
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    //Snapshots of one chunk's sections, scanned on a worker thread
+    private record ChunkScan(WorldChunk chunk, long chunkKey, int scanId, List<SectionSnapshot> snapshots) {
+
+        Long2ObjectOpenHashMap<short[]> scan(BlockLookupTable table) {
+            Long2ObjectOpenHashMap<short[]> result = new Long2ObjectOpenHashMap<>();
+            for (SectionSnapshot snapshot : snapshots) {
+                short[] positions = snapshot.findAll(table::contains);
+                if (positions.length > 0)
+                    result.put(snapshot.getSectionPos(), positions);
+            }
+            return result;
+        }
+    }
+}
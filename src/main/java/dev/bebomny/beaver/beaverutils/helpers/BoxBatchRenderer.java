@@ -0,0 +1,143 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import net.minecraft.client.gl.VertexBuffer;
+import net.minecraft.client.render.BufferBuilder;
+import net.minecraft.client.render.GameRenderer;
+import net.minecraft.client.render.VertexFormat;
+import net.minecraft.client.render.VertexFormats;
+import net.minecraft.client.util.math.MatrixStack;
+import net.minecraft.util.math.Vec3d;
+
+/**
+ * Draws any number of outlined boxes with a single draw call.
+ * Boxes are collected into one {@code DEBUG_LINES} buffer and uploaded to a {@link VertexBuffer} that is kept between frames,
+ * so a set of boxes that doesn't change is only uploaded once and then drawn every frame for the cost of one draw call.
+ * <p>
+ * Vertices are stored relative to an origin picked in {@link #begin(double, double, double)} to keep the float precision
+ * when far away from 0,0. For boxes that change every frame just begin, add and upload every frame.
+ * <p>
+ * Must only be used on the render thread.
+ */
+public class BoxBatchRenderer {
+
+    private static final int BYTES_PER_BOX = 24 * 12; //24 line vertices, 3 floats each
+
+    private final BufferBuilder bufferBuilder;
+    private VertexBuffer vertexBuffer;
+    private boolean building;
+    private int boxCount;
+    private int uploadedBoxCount;
+
+    private double originX;
+    private double originY;
+    private double originZ;
+    private double uploadedOriginX;
+    private double uploadedOriginY;
+    private double uploadedOriginZ;
+
+    public BoxBatchRenderer(int expectedBoxes) {
+        this.bufferBuilder = new BufferBuilder(Math.max(1, expectedBoxes) * BYTES_PER_BOX);
+    }
+
+    /**
+     * Starts collecting a new set of boxes, the previously uploaded set keeps being drawn until {@link #upload()}
+     */
+    public void begin(double originX, double originY, double originZ) {
+        if (building)
+            bufferBuilder.end().release();
+
+        this.originX = originX;
+        this.originY = originY;
+        this.originZ = originZ;
+        this.boxCount = 0;
+        this.building = true;
+        bufferBuilder.begin(VertexFormat.DrawMode.DEBUG_LINES, VertexFormats.POSITION);
+    }
+
+    public void add(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        RenderUtils.drawOutlinedBox(
+                minX - originX, minY - originY, minZ - originZ,
+                maxX - originX, maxY - originY, maxZ - originZ,
+                bufferBuilder
+        );
+        boxCount++;
+    }
+
+    /**
+     * Finishes the current set and uploads it to the persistent VertexBuffer
+     */
+    public void upload() {
+        if (!building)
+            return;
+
+        building = false;
+
+        if (boxCount == 0) {
+            bufferBuilder.end().release();
+            uploadedBoxCount = 0;
+            return;
+        }
+
+        if (vertexBuffer == null)
+            vertexBuffer = new VertexBuffer();
+
+        vertexBuffer.bind();
+        vertexBuffer.upload(bufferBuilder.end());
+        VertexBuffer.unbind();
+
+        this.uploadedBoxCount = boxCount;
+        this.uploadedOriginX = originX;
+        this.uploadedOriginY = originY;
+        this.uploadedOriginZ = originZ;
+    }
+
+    /**
+     * Draws the last uploaded set of boxes through walls
+     * @param matrixStack the world render MatrixStack, with the camera rotation applied
+     * @param cameraPos the camera position the MatrixStack is relative to
+     */
+    public void draw(MatrixStack matrixStack, Vec3d cameraPos, float red, float green, float blue, float alpha) {
+        if (vertexBuffer == null || uploadedBoxCount == 0)
+            return;
+
+        matrixStack.push();
+        matrixStack.translate(uploadedOriginX - cameraPos.x, uploadedOriginY - cameraPos.y, uploadedOriginZ - cameraPos.z);
+
+        RenderSystem.disableDepthTest();
+        RenderSystem.enableBlend();
+        RenderSystem.defaultBlendFunc();
+        RenderSystem.setShaderColor(red, green, blue, alpha);
+
+        vertexBuffer.bind();
+        vertexBuffer.draw(matrixStack.peek().getPositionMatrix(), RenderSystem.getProjectionMatrix(), GameRenderer.getPositionProgram());
+        VertexBuffer.unbind();
+
+        RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
+        RenderSystem.disableBlend();
+        RenderSystem.enableDepthTest();
+
+        matrixStack.pop();
+    }
+
+    public int getUploadedBoxCount() {
+        return uploadedBoxCount;
+    }
+
+    /**
+     * Frees the GPU buffer, the renderer can still be used afterwards
+     */
+    public void clear() {
+        if (building) {
+            bufferBuilder.end().release();
+            building = false;
+        }
+
+        if (vertexBuffer != null) {
+            vertexBuffer.close();
+            vertexBuffer = null;
+        }
+
+        uploadedBoxCount = 0;
+    }
+}
@@ -0,0 +1,124 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.CropBlock;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Tracks every crop and its age in a box around a center position.
+ * The box spans {@code radius} blocks horizontally and the layer of, and one above, the center,
+ * which is where crops on the farmland covered by a {@link FarmlandTracker} with the same center grow.
+ * <p>
+ * Crops only change through block updates, so growth is picked up from the changes fed in with {@link #onBlockUpdate}
+ * and nothing is polled. The fully grown ones are kept in their own set, reading it costs nothing for the crops still growing.
+ */
+public class CropTracker extends AreaTracker<CropTracker> {
+
+    //BlockPos.asLong -> age
+    private final Long2IntOpenHashMap ages = new Long2IntOpenHashMap();
+    //Subset of ages
+    private final LongOpenHashSet matureCrops = new LongOpenHashSet();
+
+    public CropTracker() {
+        super(0, 1);
+        ages.defaultReturnValue(-1);
+    }
+
+    /**
+     * Applies a block change, call with the new state after the block at {@code pos} changed
+     */
+    public void onBlockUpdate(BlockPos pos, BlockState state) {
+        if (deferWhileRescanning(pos))
+            return;
+
+        if (isTracking() && isInArea(pos.getX(), pos.getY(), pos.getZ()))
+            set(pos.asLong(), state);
+    }
+
+    /**
+     * @return the fully grown crops as {@code BlockPos.asLong}, don't modify the set directly
+     */
+    public LongSet getMatureCrops() {
+        return matureCrops;
+    }
+
+    /**
+     * @return the age of the crop at the position, or -1 if there's no tracked crop there
+     */
+    public int getAge(long pos) {
+        return ages.get(pos);
+    }
+
+    public int getCropCount() {
+        return ages.size();
+    }
+
+    /**
+     * Stops tracking a position until it changes again or is scanned again, e.g. right after harvesting it
+     */
+    public void remove(long pos) {
+        ages.remove(pos);
+        matureCrops.remove(pos);
+    }
+
+    @Override
+    protected void check(int x, int y, int z) {
+        mutable.set(x, y, z);
+        set(mutable.asLong(), world.getBlockState(mutable));
+    }
+
+    @Override
+    protected void removeOutsideArea() {
+        ObjectIterator<Long2IntMap.Entry> iterator = ages.long2IntEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            long pos = iterator.next().getLongKey();
+            if (!isInArea(pos)) {
+                iterator.remove();
+                matureCrops.remove(pos);
+            }
+        }
+    }
+
+    @Override
+    protected void clearTracked() {
+        ages.clear();
+        matureCrops.clear();
+    }
+
+    @Override
+    protected CropTracker createEmpty() {
+        return new CropTracker();
+    }
+
+    @Override
+    protected void copyTracked(CropTracker from) {
+        ages.clear();
+        ages.putAll(from.ages);
+        matureCrops.clear();
+        matureCrops.addAll(from.matureCrops);
+    }
+
+    @Override
+    protected void recheck(BlockPos pos) {
+        if (isTracking() && isInArea(pos.getX(), pos.getY(), pos.getZ()))
+            check(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    private void set(long pos, BlockState state) {
+        if (!(state.getBlock() instanceof CropBlock crop)) {
+            remove(pos);
+            return;
+        }
+
+        ages.put(pos, crop.getAge(state));
+        if (crop.isMature(state))
+            matureCrops.add(pos);
+        else
+            matureCrops.remove(pos);
+    }
+}
@@ -0,0 +1,99 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.AirBlock;
+import net.minecraft.block.FarmlandBlock;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Tracks the farmland blocks with air above them in a box around a center position.
+ * The box spans {@code radius} blocks horizontally and the layer of, and one below, the center.
+ * <p>
+ * When the center moves only the newly covered positions are looked up, and single block changes are
+ * re-checked as they come in, so the per-tick cost is proportional to the empty farmland, not to the area.
+ */
+public class FarmlandTracker extends AreaTracker<FarmlandTracker> {
+
+    //Empty farmland positions, as BlockPos.asLong
+    private final LongOpenHashSet emptyFarmland = new LongOpenHashSet();
+
+    public FarmlandTracker() {
+        super(-1, 0);
+    }
+
+    /**
+     * Re-checks the positions affected by a block change, call after the block at {@code pos} changed
+     */
+    public void onBlockUpdate(BlockPos pos) {
+        if (deferWhileRescanning(pos))
+            return;
+
+        recheck(pos);
+    }
+
+    @Override
+    protected void recheck(BlockPos pos) {
+        if (!isTracking())
+            return;
+
+        //The changed block itself and the farmland it might be sitting on
+        if (isInArea(pos.getX(), pos.getY(), pos.getZ()))
+            check(pos.getX(), pos.getY(), pos.getZ());
+
+        if (isInArea(pos.getX(), pos.getY() - 1, pos.getZ()))
+            check(pos.getX(), pos.getY() - 1, pos.getZ());
+    }
+
+    /**
+     * @return the empty farmland positions as {@code BlockPos.asLong}, don't modify the set directly
+     */
+    public LongSet getEmptyFarmland() {
+        return emptyFarmland;
+    }
+
+    /**
+     * Stops tracking a position until it changes again or is scanned again, e.g. right after planting on it
+     */
+    public void remove(long pos) {
+        emptyFarmland.remove(pos);
+    }
+
+    @Override
+    protected void check(int x, int y, int z) {
+        mutable.set(x, y, z);
+        long pos = mutable.asLong();
+
+        if (world.getBlockState(mutable).getBlock() instanceof FarmlandBlock
+                && world.getBlockState(mutable.move(0, 1, 0)).getBlock() instanceof AirBlock)
+            emptyFarmland.add(pos);
+        else
+            emptyFarmland.remove(pos);
+    }
+
+    @Override
+    protected void removeOutsideArea() {
+        LongIterator iterator = emptyFarmland.iterator();
+        while (iterator.hasNext()) {
+            if (!isInArea(iterator.nextLong()))
+                iterator.remove();
+        }
+    }
+
+    @Override
+    protected void clearTracked() {
+        emptyFarmland.clear();
+    }
+
+    @Override
+    protected FarmlandTracker createEmpty() {
+        return new FarmlandTracker();
+    }
+
+    @Override
+    protected void copyTracked(FarmlandTracker from) {
+        emptyFarmland.clear();
+        emptyFarmland.addAll(from.emptyFarmland);
+    }
+}
@@ -0,0 +1,88 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.Set;
+
+/**
+ * Remembers which hotbar slots hold one of a set of items.
+ * The slots are only re-read when the inventory reports a change through its change counter,
+ * so asking for a slot every tick doesn't scan the inventory.
+ */
+public class HotbarIndex {
+
+    private final Set<Item> items;
+
+    //Bit n is set when hotbar slot n holds one of the items
+    private int slotMask;
+    private PlayerInventory indexedInventory;
+    private int indexedChangeCount;
+
+    /**
+     * @param items the items to look for, membership is checked on every refresh so an identity based set is recommended
+     */
+    public HotbarIndex(Set<Item> items) {
+        this.items = items;
+    }
+
+    /**
+     * Finds the hotbar slot holding one of the items, preferring the selected slot and then the slots closest to it
+     * @return the slot index, or -1 if there is none
+     */
+    public int findSlot(PlayerInventory inventory) {
+        refreshIfChanged(inventory);
+
+        if (slotMask == 0)
+            return -1;
+
+        int selected = inventory.selectedSlot;
+        for (int offset = 0; offset < PlayerInventory.getHotbarSize(); offset++) {
+            int right = selected + offset;
+            if (right < PlayerInventory.getHotbarSize() && isIndexed(inventory, right))
+                return right;
+
+            int left = selected - offset;
+            if (offset != 0 && left >= 0 && isIndexed(inventory, left))
+                return left;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Forces the next lookup to re-read the hotbar
+     */
+    public void invalidate() {
+        this.indexedInventory = null;
+    }
+
+    private void refreshIfChanged(PlayerInventory inventory) {
+        if (inventory == indexedInventory && inventory.getChangeCount() == indexedChangeCount)
+            return;
+
+        int mask = 0;
+        for (int slot = 0; slot < PlayerInventory.getHotbarSize(); slot++) {
+            if (items.contains(inventory.getStack(slot).getItem()))
+                mask |= 1 << slot;
+        }
+
+        this.slotMask = mask;
+        this.indexedInventory = inventory;
+        this.indexedChangeCount = inventory.getChangeCount();
+    }
+
+    //Using up a stack doesn't bump the change counter, so check the indexed slot is still right
+    private boolean isIndexed(PlayerInventory inventory, int slot) {
+        if ((slotMask & 1 << slot) == 0)
+            return false;
+
+        ItemStack stack = inventory.getStack(slot);
+        if (!stack.isEmpty() && items.contains(stack.getItem()))
+            return true;
+
+        slotMask &= ~(1 << slot);
+        return false;
+    }
+}
@@ -0,0 +1,53 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import net.minecraft.client.font.TextRenderer;
+import net.minecraft.client.gui.DrawContext;
+import net.minecraft.text.OrderedText;
+import net.minecraft.text.Text;
+
+/**
+ * A line of HUD text which keeps its {@link OrderedText} and width between frames.
+ * Both are only rebuilt when the string changes, so drawing an unchanged line every frame doesn't allocate.
+ */
+public class HudText {
+
+    private String text;
+    private OrderedText orderedText = OrderedText.EMPTY;
+    private int width;
+
+    /**
+     * Sets the text, legacy formatting codes (§) are supported
+     * @return true if the text changed and was rebuilt
+     */
+    public boolean set(String text, TextRenderer textRenderer) {
+        if (text.equals(this.text))
+            return false;
+
+        this.text = text;
+        this.orderedText = Text.of(text).asOrderedText();
+        this.width = textRenderer.getWidth(orderedText);
+        return true;
+    }
+
+    public void draw(DrawContext context, TextRenderer textRenderer, int x, int y, int color) {
+        context.drawTextWithShadow(textRenderer, orderedText, x, y, color);
+    }
+
+    public void clear() {
+        this.text = null;
+        this.orderedText = OrderedText.EMPTY;
+        this.width = 0;
+    }
+
+    public boolean isEmpty() {
+        return text == null;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,89 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+/**
+ * Moving averages of the last N samples for a few window sizes at once, e.g. 1s, 5s and 60s worth of ticks.
+ * Samples are kept in a single primitive ring buffer sized for the largest window, every window has a running sum,
+ * so adding a sample and reading an average are O(1) and neither allocates.
+ */
+public class MovingAverage {
+
+    private final double[] samples;
+    private final int[] windows;
+    private final double[] sums;
+
+    private int head; //Next slot to write
+    private int count;
+    private int sinceResum;
+
+    /**
+     * @param windows the window sizes in samples, each at least 1
+     */
+    public MovingAverage(int... windows) {
+        int capacity = 1;
+        for (int window : windows) {
+            if (window < 1)
+                throw new IllegalArgumentException("Window size must be at least 1, got " + window);
+            capacity = Math.max(capacity, window);
+        }
+
+        this.samples = new double[capacity];
+        this.windows = windows.clone();
+        this.sums = new double[windows.length];
+    }
+
+    public void add(double sample) {
+        int capacity = samples.length;
+
+        for (int i = 0; i < windows.length; i++) {
+            sums[i] += sample;
+            //The sample falling out of this window
+            if (count >= windows[i])
+                sums[i] -= samples[Math.floorMod(head - windows[i], capacity)];
+        }
+
+        samples[head] = sample;
+        head = (head + 1) % capacity;
+        if (count < capacity)
+            count++;
+
+        //Running sums drift with floating point errors, recompute them once per lap of the buffer
+        if (++sinceResum >= capacity)
+            resum();
+    }
+
+    /**
+     * @param window index of the window, in the order passed to the constructor
+     * @return the average of the window's samples, or of all samples if there are fewer than the window holds yet
+     */
+    public double getAverage(int window) {
+        int size = Math.min(count, windows[window]);
+        return size == 0 ? 0.0 : sums[window] / size;
+    }
+
+    public double getSum(int window) {
+        return sums[window];
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+
+    public void clear() {
+        head = 0;
+        count = 0;
+        sinceResum = 0;
+        for (int i = 0; i < sums.length; i++)
+            sums[i] = 0.0;
+    }
+
+    private void resum() {
+        sinceResum = 0;
+        for (int i = 0; i < windows.length; i++) {
+            int size = Math.min(count, windows[i]);
+            double sum = 0.0;
+            for (int j = 1; j <= size; j++)
+                sum += samples[Math.floorMod(head - j, samples.length)];
+            sums[i] = sum;
+        }
+    }
+}
@@ -98,43 +98,48 @@ public class RenderUtils {
     }
 
     public static void drawOutlinedBox(Box box, BufferBuilder bufferBuilder) {
+        drawOutlinedBox(box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ, bufferBuilder);
+    }
+
+    //Allocation free variant for batching many boxes into one buffer (see BoxBatchRenderer)
+    public static void drawOutlinedBox(double minX, double minY, double minZ, double maxX, double maxY, double maxZ, BufferBuilder bufferBuilder) {
         //should be 12
         //example for a box with line lengths of 1
         //0,0,0 -> 1,0,0
-        bufferBuilder.vertex(box.minX, box.minY, box.minZ).next();
-        bufferBuilder.vertex(box.maxX, box.minY, box.minZ).next();
+        bufferBuilder.vertex(minX, minY, minZ).next();
+        bufferBuilder.vertex(maxX, minY, minZ).next();
         //0,0,0 -> 0,1,0
-        bufferBuilder.vertex(box.minX, box.minY, box.minZ).next();
-        bufferBuilder.vertex(box.minX, box.maxY, box.minZ).next();
+        bufferBuilder.vertex(minX, minY, minZ).next();
+        bufferBuilder.vertex(minX, maxY, minZ).next();
         //0,0,0 -> 0,0,1
-        bufferBuilder.vertex(box.minX, box.minY, box.minZ).next();
-        bufferBuilder.vertex(box.minX, box.minY, box.maxZ).next();
+        bufferBuilder.vertex(minX, minY, minZ).next();
+        bufferBuilder.vertex(minX, minY, maxZ).next();
         //1,0,0 -> 1,0,1
-        bufferBuilder.vertex(box.maxX, box.minY, box.minZ).next();
-        bufferBuilder.vertex(box.maxX, box.minY, box.maxZ).next();
+        bufferBuilder.vertex(maxX, minY, minZ).next();
+        bufferBuilder.vertex(maxX, minY, maxZ).next();
         //0,0,1 -> 1,0,1
-        bufferBuilder.vertex(box.minX, box.minY, box.maxZ).next();
-        bufferBuilder.vertex(box.maxX, box.minY, box.maxZ).next();
+        bufferBuilder.vertex(minX, minY, maxZ).next();
+        bufferBuilder.vertex(maxX, minY, maxZ).next();
         //1,0,0 -> 1,1,0
-        bufferBuilder.vertex(box.maxX, box.minY, box.minZ).next();
-        bufferBuilder.vertex(box.maxX, box.maxY, box.minZ).next();
+        bufferBuilder.vertex(maxX, minY, minZ).next();
+        bufferBuilder.vertex(maxX, maxY, minZ).next();
         //1,0,1 -> 1,1,1
-        bufferBuilder.vertex(box.maxX, box.minY, box.maxZ).next();
-        bufferBuilder.vertex(box.maxX, box.maxY, box.maxZ).next();
+        bufferBuilder.vertex(maxX, minY, maxZ).next();
+        bufferBuilder.vertex(maxX, maxY, maxZ).next();
         //0,0,1 -> 0,1,1
-        bufferBuilder.vertex(box.minX, box.minY, box.maxZ).next();
-        bufferBuilder.vertex(box.minX, box.maxY, box.maxZ).next();
+        bufferBuilder.vertex(minX, minY, maxZ).next();
+        bufferBuilder.vertex(minX, maxY, maxZ).next();
         //0,1,0 -> 0,1,1
-        bufferBuilder.vertex(box.minX, box.maxY, box.minZ).next();
-        bufferBuilder.vertex(box.minX, box.maxY, box.maxZ).next();
+        bufferBuilder.vertex(minX, maxY, minZ).next();
+        bufferBuilder.vertex(minX, maxY, maxZ).next();
         //0,1,0 -> 1,1,0
-        bufferBuilder.vertex(box.minX, box.maxY, box.minZ).next();
-        bufferBuilder.vertex(box.maxX, box.maxY, box.minZ).next();
+        bufferBuilder.vertex(minX, maxY, minZ).next();
+        bufferBuilder.vertex(maxX, maxY, minZ).next();
         //0,1,1 -> 1,1,1
-        bufferBuilder.vertex(box.minX, box.maxY, box.maxZ).next();
-        bufferBuilder.vertex(box.maxX, box.maxY, box.maxZ).next();
+        bufferBuilder.vertex(minX, maxY, maxZ).next();
+        bufferBuilder.vertex(maxX, maxY, maxZ).next();
         //1,1,0 -> 1,1,1
-        bufferBuilder.vertex(box.maxX, box.maxY, box.minZ).next();
-        bufferBuilder.vertex(box.maxX, box.maxY, box.maxZ).next();
+        bufferBuilder.vertex(maxX, maxY, minZ).next();
+        bufferBuilder.vertex(maxX, maxY, maxZ).next();
     }
 }
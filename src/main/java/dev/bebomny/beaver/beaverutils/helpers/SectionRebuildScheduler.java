@@ -0,0 +1,135 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.fabricmc.fabric.api.client.rendering.v1.WorldRenderEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Re-meshes chunk sections a few at a time instead of throwing away every built chunk with {@code worldRenderer.reload()}.
+ * Sections are rebuilt nearest to the camera first, with at most {@code budgetPerFrame} sections scheduled per frame.
+ */
+public class SectionRebuildScheduler {
+
+    private final MinecraftClient client;
+    private final IntSupplier budgetPerFrame;
+
+    //Section positions (ChunkSectionPos.asLong) sorted nearest first, consumed from the cursor on
+    private long[] queue = new long[0];
+    private int cursor;
+    private ClientWorld queuedWorld;
+
+    public SectionRebuildScheduler(MinecraftClient client, IntSupplier budgetPerFrame) {
+        this.client = client;
+        this.budgetPerFrame = budgetPerFrame;
+
+        WorldRenderEvents.START.register(context -> onFrame());
+    }
+
+    /**
+     * Schedules a rebuild of every loaded, non-empty section within render distance
+     */
+    public void scheduleAll() {
+        schedule(state -> true);
+    }
+
+    /**
+     * Schedules a rebuild of every loaded section within render distance which contains a matching BlockState.
+     * The check only looks at the section's palette, so it's cheap even for big render distances.
+     * @param statePredicate matches the BlockStates whose sections need to be rebuilt
+     */
+    public void schedule(Predicate<BlockState> statePredicate) {
+        ClientWorld world = client.world;
+        if (world == null)
+            return;
+
+        if (world != queuedWorld)
+            clear();
+
+        //Merge with what's still waiting, the whole queue gets re-sorted around the current camera position
+        LongOpenHashSet sections = new LongOpenHashSet();
+        for (int i = cursor; i < queue.length; i++)
+            sections.add(queue[i]);
+
+        BlockPos cameraPos = client.gameRenderer.getCamera().getBlockPos();
+        int centerX = ChunkSectionPos.getSectionCoord(cameraPos.getX());
+        int centerY = ChunkSectionPos.getSectionCoord(cameraPos.getY());
+        int centerZ = ChunkSectionPos.getSectionCoord(cameraPos.getZ());
+        int radius = client.options.getClampedViewDistance();
+
+        for (int chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+            for (int chunkZ = centerZ - radius; chunkZ <= centerZ + radius; chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ, false);
+                if (chunk == null)
+                    continue;
+
+                ChunkSection[] sectionArray = chunk.getSectionArray();
+                for (int i = 0; i < sectionArray.length; i++) {
+                    ChunkSection section = sectionArray[i];
+                    if (section.isEmpty() || !section.hasAny(statePredicate))
+                        continue;
+
+                    sections.add(ChunkSectionPos.asLong(chunkX, chunk.sectionIndexToCoord(i), chunkZ));
+                }
+            }
+        }
+
+        long[] newQueue = sections.toLongArray();
+        LongArrays.quickSort(newQueue, (a, b) -> Integer.compare(
+                getDistanceSquared(a, centerX, centerY, centerZ),
+                getDistanceSquared(b, centerX, centerY, centerZ)
+        ));
+
+        this.queue = newQueue;
+        this.cursor = 0;
+        this.queuedWorld = world;
+    }
+
+    public void clear() {
+        this.queue = new long[0];
+        this.cursor = 0;
+        this.queuedWorld = null;
+    }
+
+    public boolean isIdle() {
+        return cursor >= queue.length;
+    }
+
+    private void onFrame() {
+        if (isIdle())
+            return;
+
+        //The world changed (disconnect, dimension change) since scheduling, these sections mean nothing anymore
+        if (client.world != queuedWorld) {
+            clear();
+            return;
+        }
+
+        //The budget can be hand-edited in the config file, at least one section per frame or the queue never drains
+        int budget = Math.max(1, budgetPerFrame.getAsInt());
+        while (budget-- > 0 && cursor < queue.length) {
+            long sectionPos = queue[cursor++];
+            client.worldRenderer.scheduleBlockRender(
+                    ChunkSectionPos.unpackX(sectionPos),
+                    ChunkSectionPos.unpackY(sectionPos),
+                    ChunkSectionPos.unpackZ(sectionPos)
+            );
+        }
+    }
+
+    private static int getDistanceSquared(long sectionPos, int centerX, int centerY, int centerZ) {
+        int x = ChunkSectionPos.unpackX(sectionPos) - centerX;
+        int y = ChunkSectionPos.unpackY(sectionPos) - centerY;
+        int z = ChunkSectionPos.unpackZ(sectionPos) - centerZ;
+        return x * x + y * y + z * z;
+    }
+}
@@ -0,0 +1,77 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.shorts.ShortArrayList;
+import net.minecraft.block.BlockState;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.PalettedContainer;
+
+import java.util.function.Predicate;
+
+/**
+ * A read-only copy of the blocks in one 16³ chunk section, safe to read from any thread.
+ * The copy keeps the palette-compressed form of the section, so taking one costs a couple of small array copies.
+ * Take snapshots on the client thread, the live section can change with every packet.
+ */
+public final class SectionSnapshot {
+
+    private static final short[] NO_POSITIONS = new short[0];
+
+    private final long sectionPos;
+    //Never written after the copy, so concurrent reads are fine
+    private final PalettedContainer<BlockState> blockStates;
+
+    private SectionSnapshot(long sectionPos, PalettedContainer<BlockState> blockStates) {
+        this.sectionPos = sectionPos;
+        this.blockStates = blockStates;
+    }
+
+    /**
+     * Copies a section, must be called from the client thread
+     * @param sectionPos the section position as in {@link ChunkSectionPos#asLong(int, int, int)}
+     */
+    public static SectionSnapshot of(ChunkSection section, long sectionPos) {
+        return new SectionSnapshot(sectionPos, section.getBlockStateContainer().copy());
+    }
+
+    /**
+     * @param x local x, 0-15
+     * @param y local y, 0-15
+     * @param z local z, 0-15
+     */
+    public BlockState getBlockState(int x, int y, int z) {
+        return blockStates.get(x, y, z);
+    }
+
+    /**
+     * Only looks at the palette, cheap enough to skip sections before scanning them
+     * @return true if the section might contain a matching BlockState
+     */
+    public boolean hasAny(Predicate<BlockState> predicate) {
+        return blockStates.hasAny(predicate);
+    }
+
+    /**
+     * Finds every position with a matching BlockState
+     * @return local positions packed like {@link ChunkSectionPos#packLocal}, empty if there are none
+     */
+    public short[] findAll(Predicate<BlockState> predicate) {
+        if (!hasAny(predicate))
+            return NO_POSITIONS;
+
+        ShortArrayList positions = new ShortArrayList();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    if (predicate.test(blockStates.get(x, y, z)))
+                        positions.add((short) (x << 8 | z << 4 | y));
+                }
+            }
+        }
+        return positions.toShortArray();
+    }
+
+    public long getSectionPos() {
+        return sectionPos;
+    }
+}
@@ -0,0 +1,133 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A small pool of background threads shared by every feature, for scans and planning work that shouldn't run on the client thread.
+ * Results are handed back on the client thread at the start of the next tick.
+ * <p>
+ * Jobs belong to the world they were submitted in. When the world or dimension changes, queued jobs are dropped
+ * and the results of the ones still running are thrown away, so nothing stale is ever applied.
+ */
+public class WorkerPool {
+
+    //More than this and the jobs would compete with the chunk builder and the server thread
+    private static final int MAX_THREADS = 4;
+    //Bounded so a runaway producer can't pile up memory, callers with many small jobs should batch them
+    private static final int QUEUE_CAPACITY = 4096;
+
+    private final MinecraftClient client;
+    private final Logger LOGGER;
+    private final ThreadPoolExecutor executor;
+    //Finished jobs waiting for the next tick
+    private final ConcurrentLinkedQueue<Runnable> results = new ConcurrentLinkedQueue<>();
+
+    //Bumped on every world change, jobs from an older generation are stale
+    private volatile int generation;
+    private ClientWorld currentWorld;
+
+    public WorkerPool(MinecraftClient client) {
+        this.client = client;
+        this.LOGGER = BeaverUtilsClient.getInstance().getLogger("WorkerPool");
+
+        //Leave a core to the client thread and one to the integrated server
+        int threads = Math.max(1, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors() - 2));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "BeaverUtils Worker #" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                });
+
+        LOGGER.atInfo().log("Started with " + threads + " threads");
+
+        //Not owned by a feature, results have to be delivered no matter which features are enabled
+        BeaverUtilsClient.getInstance().featureHandler.registerTick("Worker Results", null, TickPhase.START, 1, this::onUpdate);
+    }
+
+    /**
+     * Runs a job in the background and passes its result to {@code onResult} on the client thread, at the start of the next tick.
+     * Must be called from the client thread.
+     * @param job the work to do, must not touch the live world, copy what it needs before submitting
+     * @param onResult receives the job's result, not called if the world changed in the meantime or the job failed
+     * @return {@code false} if the queue is full and the job was dropped
+     */
+    public <T> boolean submit(Supplier<T> job, Consumer<T> onResult) {
+        checkWorld(client.world);
+        int jobGeneration = generation;
+
+        try {
+            executor.execute(() -> {
+                if (jobGeneration != generation)
+                    return;
+
+                T result;
+                try {
+                    result = job.get();
+                } catch (Exception e) {
+                    LOGGER.atError().log("Background job failed", e);
+                    return;
+                }
+
+                results.add(() -> {
+                    if (jobGeneration == generation)
+                        onResult.accept(result);
+                });
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOGGER.atWarn().log("Too many background jobs queued, dropping one");
+            return false;
+        }
+    }
+
+    /**
+     * Drops every queued job and the results of the running ones
+     */
+    public void cancelAll() {
+        generation++;
+        executor.getQueue().clear();
+        results.clear();
+    }
+
+    private void onUpdate(MinecraftClient client) {
+        checkWorld(client.world);
+
+        Runnable result;
+        while ((result = results.poll()) != null)
+            result.run();
+    }
+
+    //A new ClientWorld is created for every dimension change and server join
+    private void checkWorld(ClientWorld world) {
+        if (world == currentWorld)
+            return;
+
+        currentWorld = world;
+        cancelAll();
+    }
+
+    public int getQueuedJobs() {
+        return executor.getQueue().size();
+    }
+
+    public int getThreadCount() {
+        return executor.getCorePoolSize();
+    }
+}
@@ -0,0 +1,137 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import it.unimi.dsi.fastutil.longs.LongSets;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Everything that changed in the client world during one tick, delivered by the {@link WorldChangeStream}.
+ * Apply it in order: unloaded chunks, loaded chunks, then block changes.
+ * <p>
+ * A change set is reused for the next tick, only read it while it's being delivered.
+ */
+public class WorldChangeSet {
+
+    @Nullable
+    private ClientWorld world;
+    private boolean worldChanged;
+    //BlockPos.asLong -> the latest state, in the order the positions first changed
+    private final Long2ObjectLinkedOpenHashMap<BlockState> blockChanges = new Long2ObjectLinkedOpenHashMap<>();
+    //ChunkPos.toLong
+    private final LongLinkedOpenHashSet loadedChunks = new LongLinkedOpenHashSet();
+    private final LongLinkedOpenHashSet unloadedChunks = new LongLinkedOpenHashSet();
+    private final BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+    //Starts collecting for another world, whatever was collected for the previous one is meaningless now
+    void reset(@Nullable ClientWorld world) {
+        clear();
+        this.world = world;
+        this.worldChanged = true;
+    }
+
+    //Collects the next tick of the same world, only the first change set of a world is flagged as changed
+    void continueWorld(WorldChangeSet previous) {
+        clear();
+        this.world = previous.world;
+    }
+
+    void addBlockChange(BlockPos pos, BlockState state) {
+        blockChanges.put(pos.asLong(), state);
+    }
+
+    void addChunkLoad(long chunkPos) {
+        loadedChunks.add(chunkPos);
+    }
+
+    //A chunk loaded and unloaded within the same tick was never seen, it's only reported as unloaded
+    void addChunkUnload(long chunkPos) {
+        loadedChunks.remove(chunkPos);
+        unloadedChunks.add(chunkPos);
+    }
+
+    void clear() {
+        blockChanges.clear();
+        loadedChunks.clear();
+        unloadedChunks.clear();
+        this.worldChanged = false;
+    }
+
+    boolean isEmpty() {
+        return !worldChanged && blockChanges.isEmpty() && loadedChunks.isEmpty() && unloadedChunks.isEmpty();
+    }
+
+    /**
+     * @return the world the changes happened in
+     */
+    public @Nullable ClientWorld getWorld() {
+        return world;
+    }
+
+    /**
+     * @return true if this is the first change set of a new world or dimension, anything kept for another world is stale
+     */
+    public boolean isWorldChanged() {
+        return worldChanged;
+    }
+
+    /**
+     * Calls the consumer with the latest state of every changed position, skipping chunks that are unloaded by now.
+     * The BlockPos is reused between calls, copy it with {@code toImmutable()} to keep it.
+     */
+    public void forEachBlockChange(BiConsumer<BlockPos, BlockState> consumer) {
+        for (Long2ObjectMap.Entry<BlockState> entry : blockChanges.long2ObjectEntrySet()) {
+            mutable.set(entry.getLongKey());
+            long chunkPos = ChunkPos.toLong(mutable.getX() >> 4, mutable.getZ() >> 4);
+            if (unloadedChunks.contains(chunkPos) && !loadedChunks.contains(chunkPos))
+                continue;
+
+            consumer.accept(mutable, entry.getValue());
+        }
+    }
+
+    /**
+     * Calls the consumer for every chunk loaded during the tick that is still loaded
+     */
+    public void forEachLoadedChunk(Consumer<WorldChunk> consumer) {
+        if (world == null)
+            return;
+
+        LongIterator iterator = loadedChunks.iterator();
+        while (iterator.hasNext()) {
+            long chunkPos = iterator.nextLong();
+            WorldChunk chunk = world.getChunkManager().getWorldChunk(ChunkPos.getPackedX(chunkPos), ChunkPos.getPackedZ(chunkPos), false);
+            if (chunk != null)
+                consumer.accept(chunk);
+        }
+    }
+
+    public int getBlockChangeCount() {
+        return blockChanges.size();
+    }
+
+    /**
+     * @return the chunks loaded during the tick, as {@code ChunkPos.toLong}
+     */
+    public LongSet getLoadedChunks() {
+        return LongSets.unmodifiable(loadedChunks);
+    }
+
+    /**
+     * @return the chunks unloaded during the tick, as {@code ChunkPos.toLong}
+     */
+    public LongSet getUnloadedChunks() {
+        return LongSets.unmodifiable(unloadedChunks);
+    }
+}
@@ -0,0 +1,129 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientChunkEvents;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects what changes in the client world, fed by block update and chunk delta packets (through {@code ClientWorldMixin})
+ * and by chunk loads and unloads. Once per tick the collected changes are delivered to the subscribers as one {@link WorldChangeSet},
+ * so indexes and caches can update in proportion to the changes instead of rescanning the world.
+ * <p>
+ * Changes are only collected while at least one subscriber is active. Everything runs on the client thread.
+ */
+public class WorldChangeStream {
+
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    //Read for every block update packet, kept up to date when subscribers are added or their owners are toggled
+    private volatile boolean active;
+
+    //Collected during the tick, swapped with the delivered one so neither is reallocated
+    private WorldChangeSet pending = new WorldChangeSet();
+    private WorldChangeSet delivering = new WorldChangeSet();
+
+    public WorldChangeStream() {
+        ClientChunkEvents.CHUNK_LOAD.register(this::onChunkLoad);
+        ClientChunkEvents.CHUNK_UNLOAD.register(this::onChunkUnload);
+        //Not owned by a feature, the subscribers decide whether they are active
+        BeaverUtilsClient.getInstance().featureHandler.registerTick("World Changes", null, TickPhase.START, 1, this::onUpdate);
+    }
+
+    /**
+     * Delivers the changes of every tick to the listener, at the start of the next tick
+     * @param owner the listener only gets change sets while this feature is enabled, {@code null} to always get them
+     * @param listener receives the changes, the change set is only valid during the call
+     */
+    public void subscribe(@Nullable SimpleOnOffFeature owner, Consumer<WorldChangeSet> listener) {
+        subscribers.add(new Subscriber(owner, listener));
+        updateActive();
+    }
+
+    /**
+     * Re-checks whether any subscriber is active, called after a feature was enabled or disabled
+     */
+    public void updateActive() {
+        this.active = hasActiveSubscriber();
+    }
+
+    /**
+     * @return true while changes are being collected, cheap enough to check before every call to {@link #onBlockUpdate}
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Called after a block changed on the client, both single block updates and chunk deltas end up here
+     */
+    public void onBlockUpdate(ClientWorld world, BlockPos pos, BlockState state) {
+        if (prepare(world))
+            pending.addBlockChange(pos, state);
+    }
+
+    private void onChunkLoad(ClientWorld world, WorldChunk chunk) {
+        if (prepare(world))
+            pending.addChunkLoad(chunk.getPos().toLong());
+    }
+
+    private void onChunkUnload(ClientWorld world, WorldChunk chunk) {
+        if (prepare(world))
+            pending.addChunkUnload(chunk.getPos().toLong());
+    }
+
+    //Returns whether the change should be collected
+    private boolean prepare(ClientWorld world) {
+        if (!active)
+            return false;
+
+        if (world != pending.getWorld())
+            pending.reset(world);
+
+        return true;
+    }
+
+    private void onUpdate(MinecraftClient client) {
+        if (client.world != pending.getWorld())
+            pending.reset(client.world);
+
+        if (pending.isEmpty())
+            return;
+
+        WorldChangeSet changes = pending;
+        this.pending = delivering;
+        this.delivering = changes;
+        pending.continueWorld(changes);
+
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isActive())
+                subscriber.listener().accept(changes);
+        }
+
+        changes.clear();
+    }
+
+    private boolean hasActiveSubscriber() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isActive())
+                return true;
+        }
+        return false;
+    }
+
+    private record Subscriber(@Nullable SimpleOnOffFeature owner, Consumer<WorldChangeSet> listener) {
+
+        boolean isActive() {
+            return owner == null || owner.isEnabled();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package dev.bebomny.beaver.beaverutils.helpers;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.block.BlockState;
+import net.minecraft.block.Blocks;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.fluid.FluidState;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.BlockView;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An immutable copy of the blocks in an area of the world, made of {@link SectionSnapshot}s.
+ * Background jobs can read it like any other {@link BlockView} (e.g. {@link AreaTracker#updateInBackground}) or scan its sections
+ * in parallel with {@link #scanSections(Function)} (e.g. {@link BlockPositionIndex#rebuild()}), without touching the live world.
+ * <p>
+ * Positions outside the captured area, in unloaded chunks or in skipped sections read as air.
+ * Block entities aren't captured.
+ */
+public final class WorldSnapshot implements BlockView {
+
+    private static final BlockState AIR = Blocks.AIR.getDefaultState();
+
+    private final Long2ObjectOpenHashMap<SectionSnapshot> sections;
+    private final SectionSnapshot[] sectionArray;
+    private final int bottomY;
+    private final int height;
+
+    private WorldSnapshot(List<SectionSnapshot> sectionList, int bottomY, int height) {
+        this.sectionArray = sectionList.toArray(new SectionSnapshot[0]);
+        this.sections = new Long2ObjectOpenHashMap<>(sectionArray.length);
+        for (SectionSnapshot section : sectionArray)
+            sections.put(section.getSectionPos(), section);
+
+        this.bottomY = bottomY;
+        this.height = height;
+    }
+
+    /**
+     * Copies the loaded chunks around a center chunk, full height. Must be called from the client thread.
+     * @param sectionFilter only sections whose palette contains a matching BlockState are copied
+     */
+    public static WorldSnapshot capture(World world, ChunkPos center, int chunkRadius, Predicate<BlockState> sectionFilter) {
+        return capture(world,
+                center.x - chunkRadius, world.getBottomSectionCoord(), center.z - chunkRadius,
+                center.x + chunkRadius, world.getTopSectionCoord() - 1, center.z + chunkRadius,
+                sectionFilter);
+    }
+
+    /**
+     * Copies every loaded section touching the block box between the two corners. Must be called from the client thread.
+     */
+    public static WorldSnapshot capture(World world, BlockPos from, BlockPos to) {
+        return capture(world,
+                ChunkSectionPos.getSectionCoord(Math.min(from.getX(), to.getX())),
+                ChunkSectionPos.getSectionCoord(Math.min(from.getY(), to.getY())),
+                ChunkSectionPos.getSectionCoord(Math.min(from.getZ(), to.getZ())),
+                ChunkSectionPos.getSectionCoord(Math.max(from.getX(), to.getX())),
+                ChunkSectionPos.getSectionCoord(Math.max(from.getY(), to.getY())),
+                ChunkSectionPos.getSectionCoord(Math.max(from.getZ(), to.getZ())),
+                state -> true);
+    }
+
+    //All coordinates in sections, inclusive
+    private static WorldSnapshot capture(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, Predicate<BlockState> sectionFilter) {
+        List<SectionSnapshot> sectionList = new ArrayList<>();
+
+        for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+            for (int chunkZ = minZ; chunkZ <= maxZ; chunkZ++) {
+                WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ, false);
+                if (chunk == null)
+                    continue;
+
+                int fromY = Math.max(minY, chunk.getBottomSectionCoord());
+                int toY = Math.min(maxY, chunk.getTopSectionCoord() - 1);
+                for (int sectionY = fromY; sectionY <= toY; sectionY++) {
+                    ChunkSection section = chunk.getSection(chunk.sectionCoordToIndex(sectionY));
+                    if (section.isEmpty() || !section.hasAny(sectionFilter))
+                        continue;
+
+                    sectionList.add(SectionSnapshot.of(section, ChunkSectionPos.asLong(chunkX, sectionY, chunkZ)));
+                }
+            }
+        }
+
+        return new WorldSnapshot(sectionList, world.getBottomY(), world.getHeight());
+    }
+
+    /**
+     * Runs the scanner on every captured section, split across the fork/join common pool.
+     * @param scanner called concurrently, must be thread-safe. A {@code null} result leaves the section out of the returned map.
+     * @return the results keyed by section position as in {@link ChunkSectionPos#asLong(int, int, int)}
+     */
+    public <R> Long2ObjectOpenHashMap<R> scanSections(Function<SectionSnapshot, R> scanner) {
+        if (sectionArray.length == 0)
+            return new Long2ObjectOpenHashMap<>();
+
+        return ForkJoinPool.commonPool().invoke(new ScanTask<>(sectionArray, 0, sectionArray.length, scanner));
+    }
+
+    public @Nullable SectionSnapshot getSection(long sectionPos) {
+        return sections.get(sectionPos);
+    }
+
+    public int getSectionCount() {
+        return sectionArray.length;
+    }
+
+    @Override
+    public BlockState getBlockState(BlockPos pos) {
+        SectionSnapshot section = sections.get(ChunkSectionPos.toLong(pos));
+        if (section == null)
+            return AIR;
+
+        return section.getBlockState(pos.getX() & 15, pos.getY() & 15, pos.getZ() & 15);
+    }
+
+    @Override
+    public FluidState getFluidState(BlockPos pos) {
+        return getBlockState(pos).getFluidState();
+    }
+
+    @Override
+    public @Nullable BlockEntity getBlockEntity(BlockPos pos) {
+        return null;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getBottomY() {
+        return bottomY;
+    }
+
+    //Splits the sections in halves until few enough are left to scan them directly
+    private static final class ScanTask<R> extends RecursiveTask<Long2ObjectOpenHashMap<R>> {
+
+        private static final int SECTIONS_PER_TASK = 8;
+
+        private final SectionSnapshot[] sections;
+        private final int from;
+        private final int to;
+        private final Function<SectionSnapshot, R> scanner;
+
+        private ScanTask(SectionSnapshot[] sections, int from, int to, Function<SectionSnapshot, R> scanner) {
+            this.sections = sections;
+            this.from = from;
+            this.to = to;
+            this.scanner = scanner;
+        }
+
+        @Override
+        protected Long2ObjectOpenHashMap<R> compute() {
+            if (to - from <= SECTIONS_PER_TASK) {
+                Long2ObjectOpenHashMap<R> results = new Long2ObjectOpenHashMap<>();
+                for (int i = from; i < to; i++) {
+                    R result = scanner.apply(sections[i]);
+                    if (result != null)
+                        results.put(sections[i].getSectionPos(), result);
+                }
+                return results;
+            }
+
+            int middle = (from + to) >>> 1;
+            ScanTask<R> left = new ScanTask<>(sections, from, middle, scanner);
+            left.fork();
+            Long2ObjectOpenHashMap<R> results = new ScanTask<>(sections, middle, to, scanner).compute();
+            results.putAll(left.join());
+            return results;
+        }
+    }
+}
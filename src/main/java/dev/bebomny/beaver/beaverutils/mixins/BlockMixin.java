@@ -1,7 +1,9 @@
 package dev.bebomny.beaver.beaverutils.mixins;
 
-import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
+import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
 import dev.bebomny.beaver.beaverutils.features.features.XRay;
+import dev.bebomny.beaver.beaverutils.mixinterface.IAbstractBlockState;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.util.math.BlockPos;
@@ -18,14 +20,13 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 public class BlockMixin {
     @Inject(at = @At("HEAD"), method = "shouldDrawSide", cancellable = true)
     private static void onShouldDrawSide(BlockState state, BlockView world, BlockPos pos, Direction side, BlockPos otherPos, CallbackInfoReturnable<Boolean> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(state.getBlock())) {
-                cir.setReturnValue(true);
-                return;
-            }
-            cir.setReturnValue(false);
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
             return;
-        }
+
+        byte xRayState = ((IAbstractBlockState) state).getXRayState();
+        if(xRayState == XRay.STATE_DISABLED)
+            return;
+
+        cir.setReturnValue(xRayState == XRay.STATE_VISIBLE);
     }
 }
@@ -1,7 +1,11 @@
 package dev.bebomny.beaver.beaverutils.mixins;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
+import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
 import dev.bebomny.beaver.beaverutils.features.features.XRay;
+import dev.bebomny.beaver.beaverutils.mixinterface.IAbstractBlockState;
+import dev.bebomny.beaver.beaverutils.profiler.Profiler;
 import net.minecraft.block.Block;
 import net.minecraft.block.AbstractBlock.AbstractBlockState;
 import net.minecraft.block.BlockState;
@@ -13,76 +17,87 @@ import net.minecraft.util.shape.VoxelShapes;
 import net.minecraft.world.BlockView;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 @Mixin(AbstractBlockState.class)
-public abstract class BlockStateMixin {
+public abstract class BlockStateMixin implements IAbstractBlockState {
     @Shadow public abstract Block getBlock();
 
+    //Packed as (generation << 2) | state, written as a single int so the meshing threads never see a torn pair
+    //0 is never a valid generation, so a fresh BlockState always computes its state on first read
+    @Unique
+    private int xRayCachedState;
+
+    @Override
+    public byte getXRayState() {
+        if(Profiler.isActive())
+            BeaverUtilsClient.getInstance().features.xRay.stateReads.increment();
+
+        int generation = XRay.getStateGeneration();
+        int cached = this.xRayCachedState;
+        if((cached >>> 2) == generation)
+            return (byte) (cached & 0b11);
+
+        byte state = BeaverUtilsClient.getInstance().features.xRay.computeState(this.getBlock());
+        this.xRayCachedState = generation << 2 | state;
+        return state;
+    }
+
     @Inject(at = @At("HEAD"), method = "isSideInvisible", cancellable = true)
     public void isSideInvisible(BlockState state, Direction direction, CallbackInfoReturnable<Boolean> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(this.getBlock())) {
-                cir.setReturnValue(false);
-                return;
-            }
-            cir.setReturnValue(true);
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
             return;
-        }
+
+        byte xRayState = getXRayState();
+        if(xRayState == XRay.STATE_DISABLED)
+            return;
+
+        cir.setReturnValue(xRayState == XRay.STATE_HIDDEN);
     }
 
     @Inject(at = @At("HEAD"), method = "isSideSolid", cancellable = true)
     public void isSideSolid(BlockView world, BlockPos pos, Direction direction, SideShapeType shapeType, CallbackInfoReturnable<Boolean> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(this.getBlock())) {
-                cir.setReturnValue(true);
-                return;
-            }
-            cir.setReturnValue(false);
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
+            return;
+
+        byte xRayState = getXRayState();
+        if(xRayState == XRay.STATE_DISABLED)
             return;
-        }
+
+        cir.setReturnValue(xRayState == XRay.STATE_VISIBLE);
     }
 
     @Inject(at = @At("HEAD"), method = "getLuminance", cancellable = true)
     public void getLuminance(CallbackInfoReturnable<Integer> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(this.getBlock())) {
-                cir.setReturnValue(12);
-                return;
-            }
-
-        }
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
+            return;
+
+        if(getXRayState() == XRay.STATE_VISIBLE)
+            cir.setReturnValue(12);
     }
 
     @Inject(at = @At("HEAD"), method = "getAmbientOcclusionLightLevel", cancellable = true)
     public void getAmbientOcclusionLightLevel(BlockView world, BlockPos pos, CallbackInfoReturnable<Float> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(this.getBlock())) {
-                cir.setReturnValue(1.0f);
-                return;
-            }
-            cir.setReturnValue(1.0f);
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
             return;
-        }
+
+        if(getXRayState() != XRay.STATE_DISABLED)
+            cir.setReturnValue(1.0f);
     }
 
     @Inject(at = @At("HEAD"), method = "getCullingFace", cancellable = true)
     public void getCullingFace(BlockView world, BlockPos pos, Direction direction, CallbackInfoReturnable<VoxelShape> cir) {
-        XRay xRay = BeaverUtilsClient.getInstance().features.xRay;
-        if(xRay.isEnabled()) {
-            if(xRay.isInterestingBlock(this.getBlock())) {
-                cir.setReturnValue(VoxelShapes.fullCube());
-                return;
-            }
-            cir.setReturnValue(VoxelShapes.empty());
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.XRAY))
+            return;
+
+        byte xRayState = getXRayState();
+        if(xRayState == XRay.STATE_DISABLED)
             return;
-        }
+
+        cir.setReturnValue(xRayState == XRay.STATE_VISIBLE ? VoxelShapes.fullCube() : VoxelShapes.empty());
     }
 
 }
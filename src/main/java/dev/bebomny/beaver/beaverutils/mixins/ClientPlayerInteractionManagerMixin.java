@@ -1,6 +1,8 @@
 package dev.bebomny.beaver.beaverutils.mixins;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
+import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
 import net.minecraft.client.network.ClientPlayerInteractionManager;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Direction;
@@ -22,18 +24,16 @@ public class ClientPlayerInteractionManagerMixin {
 
     @Inject(method = "getReachDistance", at = @At("HEAD"), cancellable = true)
     public void onGetReachDistance(CallbackInfoReturnable<Float> cir) {
-        if(!BeaverUtilsClient.getInstance().features.reach.isEnabled()) {
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.REACH))
             return;
-        }
 
         cir.setReturnValue(BeaverUtilsClient.getInstance().features.reach.getDistance());
     }
 
     @Inject(method = "hasExtendedReach", at = @At("HEAD"), cancellable = true)
     public void hasExtendedReach(CallbackInfoReturnable<Boolean> cir) {
-        if(!BeaverUtilsClient.getInstance().features.reach.isEnabled()) {
+        if(!SimpleOnOffFeature.isFlagEnabled(FeatureFlags.REACH))
             return;
-        }
 
         cir.setReturnValue(true);
     }
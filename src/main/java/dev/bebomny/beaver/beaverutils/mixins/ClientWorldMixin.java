@@ -0,0 +1,26 @@
+package dev.bebomny.beaver.beaverutils.mixins;
+
+import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.helpers.WorldChangeStream;
+import net.minecraft.block.BlockState;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ClientWorld.class)
+public class ClientWorldMixin {
+
+    //Both block update and chunk delta packets end up here
+    @Inject(method = "handleBlockUpdate", at = @At("TAIL"))
+    private void onHandleBlockUpdate(BlockPos pos, BlockState state, int flags, CallbackInfo ci) {
+        //Skip the stream while none of its subscribers is active
+        WorldChangeStream worldChanges = BeaverUtilsClient.getInstance().worldChanges;
+        if(!worldChanges.isActive())
+            return;
+
+        worldChanges.onBlockUpdate((ClientWorld) (Object) this, pos, state);
+    }
+}
@@ -1,6 +1,10 @@
 package dev.bebomny.beaver.beaverutils.mixins;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.features.FeatureFlags;
+import dev.bebomny.beaver.beaverutils.features.SimpleOnOffFeature;
+import dev.bebomny.beaver.beaverutils.profiler.LatencyHistogram;
+import dev.bebomny.beaver.beaverutils.profiler.Profiler;
 import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.hud.InGameHud;
@@ -21,7 +25,19 @@ public abstract class InGameHudMixin {
     @Inject(method = "render", at = @At("HEAD"))
     public void onRenderInit(DrawContext context, float tickDelta, CallbackInfo ci) {
         //Call the render function in NotificationHandler -- DONE (I think I want to call this directly not through getNotifier)
-        BeaverUtilsClient.getInstance().notifier.onRenderInit(context, tickDelta);
-        BeaverUtilsClient.getInstance().features.inGameStats.onRenderInit(context, tickDelta);
+        BeaverUtilsClient beaverUtilsClient = BeaverUtilsClient.getInstance();
+        Profiler profiler = beaverUtilsClient.profiler;
+
+        long start = LatencyHistogram.start();
+        beaverUtilsClient.notifier.onRenderInit(context, tickDelta);
+        profiler.renderNotifications.stop(start);
+
+        if(SimpleOnOffFeature.isFlagEnabled(FeatureFlags.IN_GAME_STATS)) {
+            start = LatencyHistogram.start();
+            beaverUtilsClient.features.inGameStats.onRenderInit(context, tickDelta);
+            profiler.renderInGameStats.stop(start);
+        }
+
+        profiler.onRenderInit(context);
     }
 }
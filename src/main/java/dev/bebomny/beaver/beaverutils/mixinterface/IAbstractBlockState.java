@@ -0,0 +1,8 @@
+package dev.bebomny.beaver.beaverutils.mixinterface;
+
+public interface IAbstractBlockState {
+    /**
+     * @return the cached XRay state of this BlockState, one of {@code XRay.STATE_DISABLED}, {@code XRay.STATE_HIDDEN} or {@code XRay.STATE_VISIBLE}
+     */
+    byte getXRayState();
+}
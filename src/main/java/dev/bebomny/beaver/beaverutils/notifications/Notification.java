@@ -1,6 +1,7 @@
 package dev.bebomny.beaver.beaverutils.notifications;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import dev.bebomny.beaver.beaverutils.helpers.HudText;
 import net.minecraft.text.Text;
 import org.jetbrains.annotations.Nullable;
 
@@ -15,6 +16,15 @@ public class Notification {
     @Nullable
     private String customCategory;
     private String callerClassName;
+    private int priority;
+    //Handler state, how often it got repeated and for how much longer it is shown
+    private int count = 1;
+    private int remainingTicks;
+    //Rendered form of the category prefix and text, built once by the NotificationHandler
+    private final HudText hudText = new HudText();
+    //Rendered repeat counter, drawn after hudText and only rebuilt when the count changed
+    private final HudText countText = new HudText();
+    private int renderedCount = 1;
 
     public static Builder builder(String text) {
         return new Builder(text);
@@ -23,6 +33,7 @@ public class Notification {
     protected Notification(String text, int duration) {
         this.text = text;
         this.duration = duration;
+        this.remainingTicks = duration;
     }
 
     public void setCustomXOffset(int customXOffset) {
@@ -41,6 +52,10 @@ public class Notification {
         this.callerClassName = callerClassName;
     }
 
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+
     public String getText() {
         return text;
     } //return category == null ? text : getTextWithCategory();
@@ -65,6 +80,58 @@ public class Notification {
         return callerClassName;
     }
 
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public HudText getHudText() {
+        return hudText;
+    }
+
+    public HudText getCountText() {
+        return countText;
+    }
+
+    /**
+     * @return true if the count changed since the last call, i.e. the count text has to be rebuilt
+     */
+    public boolean updateRenderedCount() {
+        if (renderedCount == count)
+            return false;
+
+        this.renderedCount = count;
+        return true;
+    }
+
+    /**
+     * @return true if both have the same category, caller and text, i.e. {@code other} can be shown as a repeat of this one
+     */
+    boolean isRepeatOf(Notification other) {
+        return category == other.category
+                && Objects.equals(customCategory, other.customCategory)
+                && Objects.equals(callerClassName, other.callerClassName)
+                && text.equals(other.text);
+    }
+
+    //Counts another occurrence and shows it for its whole duration again
+    void repeat(int duration) {
+        this.count++;
+        this.remainingTicks = Math.max(remainingTicks, duration);
+    }
+
+    //Counts down a tick, returns false once it shouldn't be shown anymore
+    boolean tick() {
+        return --remainingTicks > 0;
+    }
+
+    int getRemainingTicks() {
+        return remainingTicks;
+    }
+
     private Text getTextWithCategory() { //useless for now
         return category == Categories.CUSTOM ?
                 Text.of("§6§l[" + customCategory +"§6§l]" + " " + text)
@@ -79,6 +146,8 @@ public class Notification {
         @Nullable
         private Categories category;
         private String callerClassName;
+        @Nullable
+        private Integer priority;
 
         @Nullable
         private String customCategory;
@@ -111,6 +180,17 @@ public class Notification {
             return this;
         }
 
+        /**
+         * Notifications with a higher priority push out the lower ones when too many are shown at once.
+         * By default {@code 1} for {@code Categories.WARN} and {@code Categories.STATE}, {@code 0} for everything else
+         * @param priority the priority of the notification
+         * @return {@code this}
+         */
+        public Builder priority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
         public Builder customXOffset(int customXOffset) {
             this.customXOffset = customXOffset;
             return this;
@@ -122,6 +202,8 @@ public class Notification {
             notification.setCategory(Objects.requireNonNullElse(category, Categories.NONE)); //this is cool
             notification.setCustomCategory(customCategory);
             notification.setCallerClassName(callerClassName); //Thread.currentThread().getStackTrace()[2].getClassName()
+            notification.setPriority(Objects.requireNonNullElse(priority,
+                    notification.getCategory() == Categories.WARN || notification.getCategory() == Categories.STATE ? 1 : 0));
             return notification;
         }
 
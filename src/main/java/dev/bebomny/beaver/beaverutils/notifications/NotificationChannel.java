@@ -0,0 +1,83 @@
+package dev.bebomny.beaver.beaverutils.notifications;
+
+import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A throttled source of notifications for features that act every tick.
+ * A message is only built and posted once per {@code minInterval} ticks for each key,
+ * in between the repeats just bump the counter of the already shown notification, so they don't allocate anything
+ * and only the counter gets redrawn.
+ * Get one through {@link NotificationHandler#createChannel(Categories, String, int, int)}.
+ */
+public class NotificationChannel {
+
+    private final NotificationHandler handler;
+    private final Categories category;
+    @Nullable
+    private final String callerName;
+    private final int duration;
+    private final int minInterval;
+
+    private final Object2LongOpenHashMap<Object> lastPosted = new Object2LongOpenHashMap<>();
+    private final Map<Object, Notification> lastNotifications = new HashMap<>();
+
+    NotificationChannel(NotificationHandler handler, Categories category, @Nullable String callerName, int duration, int minInterval) {
+        this.handler = handler;
+        this.category = category;
+        this.callerName = callerName;
+        this.duration = duration;
+        this.minInterval = minInterval;
+    }
+
+    /**
+     * Posts a message, using the text itself as the throttling key
+     */
+    public void post(String text) {
+        if (isThrottled(text))
+            return;
+
+        show(text, text);
+    }
+
+    /**
+     * Posts a message whose text is only built if it actually gets shown
+     * @param key identifies the message for throttling, e.g. a constant string or an enum value
+     * @param text builds the text of the notification
+     */
+    public void post(Object key, Supplier<String> text) {
+        if (isThrottled(key))
+            return;
+
+        show(key, text.get());
+    }
+
+    private boolean isThrottled(Object key) {
+        if (category == Categories.DEBUG && !BeaverUtilsClient.getInstance().getConfig().generalConfig.debug)
+            return true;
+
+        if (!lastPosted.containsKey(key) || handler.getTicks() - lastPosted.getLong(key) >= minInterval)
+            return false;
+
+        //Still count the repeat on the shown notification
+        Notification last = lastNotifications.get(key);
+        if (last != null && handler.isShown(last))
+            last.repeat(duration);
+        return true;
+    }
+
+    private void show(Object key, String text) {
+        Notification notification = Notification.builder(text)
+                .duration(duration)
+                .category(category, callerName)
+                .build();
+
+        lastPosted.put(key, handler.getTicks());
+        lastNotifications.put(key, handler.newNotification(notification));
+    }
+}
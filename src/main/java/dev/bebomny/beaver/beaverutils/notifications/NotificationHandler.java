@@ -1,113 +1,142 @@
 package dev.bebomny.beaver.beaverutils.notifications;
 
 import dev.bebomny.beaver.beaverutils.client.BeaverUtilsClient;
-import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import dev.bebomny.beaver.beaverutils.configuration.config.GeneralConfig;
+import dev.bebomny.beaver.beaverutils.features.TickPhase;
+import dev.bebomny.beaver.beaverutils.helpers.HudText;
 import net.minecraft.client.MinecraftClient;
-import net.minecraft.client.font.TextRenderer;
 import net.minecraft.client.gui.DrawContext;
-import net.minecraft.client.render.VertexConsumerProvider;
-import net.minecraft.client.util.math.MatrixStack;
-import net.minecraft.text.OrderedText;
-import net.minecraft.text.Text;
+import org.jetbrains.annotations.Nullable;
 
-import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
 
 public class NotificationHandler {
 
+    //White, 255 per component
+    private static final int STOCK_COLOR_COMPONENT = 255;
+    private static final int STOCK_COLOR = 0xFFFFFF;
+    private static final float LINE_HEIGHT = 11f;
+
     private final MinecraftClient client;
-    private final List<Notification> notificationQueue = new ArrayList<>();
-    private int decay;
+    private long ticks;
+
+    //Bounded by generalConfig.maxNotifications
+    private final NotificationQueue notificationQueue = new NotificationQueue();
 
     public NotificationHandler(MinecraftClient client) {
         this.client = client;
-        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
+        //Always runs, the tick count is the clock for throttled channels
+        BeaverUtilsClient.getInstance().featureHandler.registerTick("Notifications", null, TickPhase.END, 1, this::onUpdate);
     }
 
     public void onRenderInit(DrawContext context, float partialTicks) {
-        if(!notificationQueue.isEmpty()) {
-            Notification notification = notificationQueue.get(0);
-
-            //ADD
-            //importance
-            //if above certain  level it will add it to the stack and display a new notificationb under
-            //with a certain max
-
+        if(notificationQueue.isEmpty())
+            return;
 
-            //Color logic using Category property - Maybe move it to the notification class?
-            //the styling of the main notification text is handled directly in the text String
-            //here I am only handling the Category/Prefix text
-            Categories category = notification.getCategory();
-            String customCategory = notification.getCustomCategory();
+        float centerX = client.getWindow().getScaledWidth()/2f;
+        float y = client.getWindow().getScaledHeight() - 65f;
 
-            String textPrefix = switch (category) {
+        //Newest at the bottom, older ones stacked above it
+        Iterator<Notification> iterator = notificationQueue.descendingIterator();
+        while(iterator.hasNext()) {
+            Notification notification = iterator.next();
 
-                case WARN -> "§6§l[" + "§eWARN" +"§6§l]" + "§r ";
+            //The prefix and text are only built once, the counter only when it changed, not every frame
+            HudText hudText = notification.getHudText();
+            if(hudText.isEmpty())
+                hudText.set(getPrefix(notification) + notification.getText(), client.textRenderer);
 
-                case INFO -> "§6§l[" + "§fINFO" +"§6§l]" + "§r ";
+            HudText countText = notification.getCountText();
+            if(notification.updateRenderedCount())
+                countText.set(getCountSuffix(notification), client.textRenderer);
 
-                case STATE -> "§6§l[" + "§2STATE " + "§0-" + " §2" + notification.getCallerClassName() + "§6§l]" + "§r ";
+            //Fade out in the last 30 ticks, color fades in the last 20
+            int decay = notification.getRemainingTicks();
+            int color = decay < 20 ? (STOCK_COLOR_COMPONENT / 30 * decay) * 0x010101 : STOCK_COLOR;
+            int alpha = decay < 30 ? ((0xFF / 30) * decay) << 24 : 0xFF << 24;
 
-                case DEBUG -> "§6§l[" + "§3DEBUG" +"§6§l]" + "§r ";
+            float x = centerX - (hudText.getWidth() + countText.getWidth())/2f;
+            hudText.draw(context, client.textRenderer, (int) x, (int) y, color | alpha);
+            countText.draw(context, client.textRenderer, (int) x + hudText.getWidth(), (int) y, color | alpha);
 
-                case CUSTOM -> "§6§l[" + customCategory +"§6§l]" + "§r ";
+            y -= LINE_HEIGHT;
+        }
+    }
 
-                case COMMAND -> "§6§l[" + "§5COMMAND" +"§6§l]" + "§r ";
+    private static String getCountSuffix(Notification notification) {
+        return notification.getCount() > 1 ? " §7x" + notification.getCount() : "";
+    }
 
-                case CONFIG_UPDATE -> "§6§l[" + "§1CONFIG UPDATED" +"§6§l]" + "§r ";
+    //Color logic using Category property
+    //the styling of the main notification text is handled directly in the text String
+    //here I am only handling the Category/Prefix text
+    private static String getPrefix(Notification notification) {
+        return switch (notification.getCategory()) {
 
-                case FEATURE -> notification.getCallerClassName() == null ?
-                        "§6§l[" + "§1FEATURE" +"§6§l]" + "§r "
-                        : "§6§l[" + "§1FEATURE " + "§0-" + " §2" + notification.getCallerClassName() +"§6§l]" + "§r ";
+            case WARN -> "§6§l[" + "§eWARN" +"§6§l]" + "§r ";
 
+            case INFO -> "§6§l[" + "§fINFO" +"§6§l]" + "§r ";
 
-                case NONE -> "";
+            case STATE -> "§6§l[" + "§2STATE " + "§0-" + " §2" + notification.getCallerClassName() + "§6§l]" + "§r ";
 
-                default -> "§c§l[YOU SHOULD NOT SEE THIS, SOMETHING WENT HORRIBLY WRONG]" + "§r ";
-            };
+            case DEBUG -> "§6§l[" + "§3DEBUG" +"§6§l]" + "§r ";
 
-            Color stockColor = new Color(255, 255, 255);
-            int color = decay < 20 ?
-                    ((stockColor.getRed() / 30) * decay) << 16 | ((stockColor.getGreen() / 30) * decay) << 8 | ((stockColor.getBlue() / 30) * decay)
-                    :
-                    stockColor.getRed() << 16 | stockColor.getGreen() << 8 | stockColor.getBlue();
+            case CUSTOM -> "§6§l[" + notification.getCustomCategory() +"§6§l]" + "§r ";
 
-            int alpha = decay < 30 ? ((0xFF / 30) * decay) << 24 : 0xFF << 24;
+            case COMMAND -> "§6§l[" + "§5COMMAND" +"§6§l]" + "§r ";
 
-            //Whole message text assembly
-            String text = textPrefix + notification.getText();
+            case CONFIG_UPDATE -> "§6§l[" + "§1CONFIG UPDATED" +"§6§l]" + "§r ";
 
-            //offset / x & y coordinates on the screen
-            float offset = BeaverUtilsClient.getInstance().client.advanceValidatingTextRenderer.getWidth(text)/2f;
-            float x = (client.getWindow().getScaledWidth()/2f) - offset;
-            float y = client.getWindow().getScaledHeight() - 65f;
+            case FEATURE -> notification.getCallerClassName() == null ?
+                    "§6§l[" + "§1FEATURE" +"§6§l]" + "§r "
+                    : "§6§l[" + "§1FEATURE " + "§0-" + " §2" + notification.getCallerClassName() +"§6§l]" + "§r ";
 
-            //Drawing to the screen using the inGameHud Object
-                //client.inGameHud.getTextRenderer().drawWithShadow(matrices, text, x, y, color | alpha); //FROM 1.19.3!!!
-            context.drawTextWithShadow(client.textRenderer, text, (int) x, (int) y, color | alpha);
-            //TODO: FIXX HERE
-        }
+            case NONE -> "";
 
-        if(decay <= 1 && !notificationQueue.isEmpty())
-            notificationQueue.remove(0);
+            default -> "§c§l[YOU SHOULD NOT SEE THIS, SOMETHING WENT HORRIBLY WRONG]" + "§r ";
+        };
     }
 
     private void onUpdate(MinecraftClient client) {
-        if(!(notificationQueue.isEmpty()))
-            decay--;
+        ticks++;
+
+        notificationQueue.tick();
     }
 
-    public void newNotification(Notification notification) {
+    /**
+     * Shows a notification stacked with the ones already on screen.
+     * A repeat of a shown notification (same category, caller and text) isn't added again, the shown one gets a counter instead.
+     * When the stack is full the oldest notification with the lowest priority is dropped, unless the new one's priority is even lower.
+     * @return the notification that is shown for this one, either itself or the one it was counted as a repeat of, {@code null} if it was dropped
+     */
+    public @Nullable Notification newNotification(Notification notification) {
         //Check if it's a debug category notification and if debug notifications are enabled
         //If they are disabled skip this notification completely
-        if(notification.getCategory() == Categories.DEBUG && !BeaverUtilsClient.getInstance().getConfig().generalConfig.debug)
-            return;
+        GeneralConfig generalConfig = BeaverUtilsClient.getInstance().getConfig().generalConfig;
+        if(notification.getCategory() == Categories.DEBUG && !generalConfig.debug)
+            return null;
 
-        if(!(notificationQueue.isEmpty()))
-            notificationQueue.remove(0);
+        return notificationQueue.offer(notification, generalConfig.maxNotifications);
+    }
+
+    /**
+     * Creates a throttled channel for a feature that wants to post notifications every tick
+     * @param category the category of the posted notifications
+     * @param callerName the name shown as the caller, can be {@code null}
+     * @param duration how long a notification is shown, in ticks
+     * @param minInterval the minimum number of ticks between two notifications with the same key
+     * @return a new {@code NotificationChannel}
+     */
+    public NotificationChannel createChannel(Categories category, @Nullable String callerName, int duration, int minInterval) {
+        return new NotificationChannel(this, category, callerName, duration, minInterval);
+    }
+
+    public boolean isShown(Notification notification) {
+        return notificationQueue.contains(notification);
+    }
 
-        notificationQueue.add(notification);
-        decay = notification.getDuration();
+    //Client ticks since start, used as the clock for throttling
+    long getTicks() {
+        return ticks;
     }
 }
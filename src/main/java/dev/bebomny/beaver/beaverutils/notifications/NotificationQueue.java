@@ -0,0 +1,92 @@
+package dev.bebomny.beaver.beaverutils.notifications;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * The notifications currently on screen, oldest first.
+ * Handles repeats, expiry and which notification gets dropped when there are too many, the {@link NotificationHandler} draws them.
+ */
+public class NotificationQueue {
+
+    private final ArrayDeque<Notification> notifications = new ArrayDeque<>();
+
+    /**
+     * Adds a notification, or counts it as a repeat of a shown one (same category, caller and text).
+     * When the queue is full the oldest notification with the lowest priority is dropped, unless the new one's priority is even lower.
+     * @param maxSize the maximum number of notifications shown at once
+     * @return the notification that is shown for this one, either itself or the one it was counted as a repeat of, {@code null} if it was dropped
+     */
+    public @Nullable Notification offer(Notification notification, int maxSize) {
+        for (Notification shown : notifications) {
+            if (shown.isRepeatOf(notification)) {
+                shown.repeat(notification.getDuration());
+                return shown;
+            }
+        }
+
+        while (notifications.size() >= Math.max(1, maxSize)) {
+            Notification lowest = getLowestPriority();
+            if (lowest.getPriority() > notification.getPriority())
+                return null;
+
+            notifications.remove(lowest);
+        }
+
+        notifications.addLast(notification);
+        return notification;
+    }
+
+    /**
+     * Counts down every notification by a tick and removes the expired ones
+     */
+    public void tick() {
+        if (notifications.isEmpty())
+            return;
+
+        Iterator<Notification> iterator = notifications.iterator();
+        while (iterator.hasNext()) {
+            if (!iterator.next().tick())
+                iterator.remove();
+        }
+    }
+
+    public boolean contains(Notification notification) {
+        for (Notification shown : notifications) {
+            if (shown == notification)
+                return true;
+        }
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return notifications.isEmpty();
+    }
+
+    public int size() {
+        return notifications.size();
+    }
+
+    public void clear() {
+        notifications.clear();
+    }
+
+    /**
+     * @return the notifications, newest first
+     */
+    public Iterator<Notification> descendingIterator() {
+        return notifications.descendingIterator();
+    }
+
+    //The oldest one among the lowest priority
+    private Notification getLowestPriority() {
+        Notification lowest = null;
+        for (Notification shown : notifications) {
+            if (lowest == null || shown.getPriority() < lowest.getPriority())
+                lowest = shown;
+        }
+        return lowest;
+    }
+}
@@ -0,0 +1,137 @@
+package dev.bebomny.beaver.beaverutils.profiler;
+
+import java.util.Arrays;
+
+/**
+ * Nanosecond timings of one code path, summarized once per second by the {@link Profiler}.
+ * Samples go into log-linear buckets (8 per power of two, so within 12.5% of the real value),
+ * recording is a few shifts and an array increment and never allocates.
+ * Only meant to be used from a single thread, the client thread.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    //Values up to 2^40ns (~18 minutes), anything above lands in the last bucket
+    private static final int MAX_EXPONENT = 39;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) << SUB_BUCKET_BITS;
+
+    private final String name;
+    private final int[] buckets = new int[BUCKET_COUNT];
+    private int count;
+    private long max;
+
+    //Summary of the last full second
+    private int lastCount;
+    private long lastP50;
+    private long lastP99;
+    private long lastMax;
+
+    LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} while the profiler is running, 0 otherwise. Pass the result to {@link #stop(long)}.
+     */
+    public static long start() {
+        return Profiler.isActive() ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records the time since {@code start}, does nothing if the profiler wasn't running when {@link #start()} was called
+     */
+    public void stop(long start) {
+        if (start != 0L)
+            record(System.nanoTime() - start);
+    }
+
+    public void record(long nanos) {
+        buckets[bucketIndex(nanos)]++;
+        count++;
+        if (nanos > max)
+            max = nanos;
+    }
+
+    //Called by the profiler once per second, publishes the summary of the samples since the last roll and starts over
+    void roll() {
+        lastCount = count;
+        lastMax = max;
+        lastP50 = percentile(0.50);
+        lastP99 = percentile(0.99);
+        clear();
+    }
+
+    void reset() {
+        clear();
+        lastCount = 0;
+        lastMax = 0;
+        lastP50 = 0;
+        lastP99 = 0;
+    }
+
+    private void clear() {
+        if (count != 0)
+            Arrays.fill(buckets, 0);
+        count = 0;
+        max = 0;
+    }
+
+    private long percentile(double percentile) {
+        if (count == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets[i];
+            if (seen >= rank)
+                return Math.min(bucketValue(i), max);
+        }
+        return max;
+    }
+
+    //Values below 8 get a bucket each, above that every power of two is split into 8 equally wide buckets
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) Math.max(0, nanos);
+
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(nanos), MAX_EXPONENT);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) | subBucket;
+    }
+
+    //The middle of the bucket's range
+    private static long bucketValue(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        int subBucket = index & (SUB_BUCKETS - 1);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS | subBucket) * width + width / 2;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of samples recorded in the last second
+     */
+    public int getCount() {
+        return lastCount;
+    }
+
+    public long getP50() {
+        return lastP50;
+    }
+
+    public long getP99() {
+        return lastP99;
+    }
+
+    public long getMax() {
+        return lastMax;
+    }
+}
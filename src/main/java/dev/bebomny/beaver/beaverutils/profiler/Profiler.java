@@ -0,0 +1,183 @@
+package dev.bebomny.beaver.beaverutils.profiler;
+
+import dev.bebomny.beaver.beaverutils.helpers.HudText;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.gui.DrawContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects timings of the feature tick handlers and render hooks, and call counts of the XRay mixins.
+ * Everything is summarized once per second and can be shown in an overlay or through {@code /beaverutils profile}.
+ * While it's off every instrumented path only pays for one volatile read.
+ */
+public class Profiler {
+
+    private static final long ROLL_INTERVAL_NANOS = 1_000_000_000L;
+    private static final int LINE_HEIGHT = 10;
+    private static final int OVERLAY_COLOR = 0xFFE0E0E0;
+
+    private static volatile boolean active;
+
+    private final MinecraftClient client;
+    private final Map<String, LatencyHistogram> timers = new LinkedHashMap<>();
+    private final Map<String, ProfilerCounter> counters = new LinkedHashMap<>();
+
+    //Render hooks in InGameHudMixin and the XRay highlight
+    public final LatencyHistogram renderNotifications = timer("Render Notifications");
+    public final LatencyHistogram renderInGameStats = timer("Render InGameStats");
+    public final LatencyHistogram renderXRayHighlight = timer("Render XRay Highlight");
+
+    private boolean overlayVisible;
+    private long nextRoll;
+    //Rebuilt once per second, not every frame
+    private final List<HudText> overlayLines = new ArrayList<>();
+
+    public Profiler(MinecraftClient client) {
+        this.client = client;
+        ClientTickEvents.END_CLIENT_TICK.register(this::onUpdate);
+    }
+
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * @return the timer with that name, created on first use
+     */
+    public LatencyHistogram timer(String name) {
+        return timers.computeIfAbsent(name, LatencyHistogram::new);
+    }
+
+    /**
+     * @return the counter with that name, created on first use
+     */
+    public ProfilerCounter counter(String name) {
+        return counters.computeIfAbsent(name, ProfilerCounter::new);
+    }
+
+    public void start() {
+        if (active)
+            return;
+
+        for (LatencyHistogram timer : timers.values())
+            timer.reset();
+        for (ProfilerCounter counter : counters.values())
+            counter.reset();
+
+        nextRoll = System.nanoTime() + ROLL_INTERVAL_NANOS;
+        active = true;
+    }
+
+    public void stop() {
+        active = false;
+        overlayVisible = false;
+        overlayLines.clear();
+    }
+
+    /**
+     * Shows or hides the overlay, starts the profiler if it's needed
+     * @return true if the overlay is visible now
+     */
+    public boolean toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        if (overlayVisible)
+            start();
+        else
+            overlayLines.clear();
+
+        return overlayVisible;
+    }
+
+    private void onUpdate(MinecraftClient client) {
+        if (!active)
+            return;
+
+        long now = System.nanoTime();
+        if (now < nextRoll)
+            return;
+
+        nextRoll = now + ROLL_INTERVAL_NANOS;
+        for (LatencyHistogram timer : timers.values())
+            timer.roll();
+        for (ProfilerCounter counter : counters.values())
+            counter.roll();
+
+        if (overlayVisible)
+            rebuildOverlay();
+    }
+
+    /**
+     * @return one line per timer and counter that saw any calls in the last second
+     */
+    public List<String> getSummary() {
+        List<String> lines = new ArrayList<>();
+        for (LatencyHistogram timer : timers.values()) {
+            if (timer.getCount() == 0)
+                continue;
+
+            lines.add("§9" + timer.getName() + "§r: p50 " + formatNanos(timer.getP50())
+                    + " p99 " + formatNanos(timer.getP99())
+                    + " max " + formatNanos(timer.getMax())
+                    + " §7(" + timer.getCount() + "/s)");
+        }
+
+        for (ProfilerCounter counter : counters.values()) {
+            if (counter.getPerSecond() == 0)
+                continue;
+
+            lines.add("§9" + counter.getName() + "§r: " + counter.getPerSecond() + "/s");
+        }
+
+        return lines;
+    }
+
+    private void rebuildOverlay() {
+        List<String> summary = getSummary();
+        summary.add(0, "§6BeaverUtils Profiler");
+
+        while (overlayLines.size() < summary.size())
+            overlayLines.add(new HudText());
+        while (overlayLines.size() > summary.size())
+            overlayLines.remove(overlayLines.size() - 1);
+
+        for (int i = 0; i < summary.size(); i++)
+            overlayLines.get(i).set(summary.get(i), client.textRenderer);
+    }
+
+    public void onRenderInit(DrawContext context) {
+        if (!overlayVisible)
+            return;
+
+        int y = 2;
+        for (HudText line : overlayLines) {
+            line.draw(context, client.textRenderer, 2, y, OVERLAY_COLOR);
+            y += LINE_HEIGHT;
+        }
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public Collection<LatencyHistogram> getTimers() {
+        return Collections.unmodifiableCollection(timers.values());
+    }
+
+    public Collection<ProfilerCounter> getCounters() {
+        return Collections.unmodifiableCollection(counters.values());
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000)
+            return String.format("%.1fµs", nanos / 1_000.0);
+
+        return String.format("%.2fms", nanos / 1_000_000.0);
+    }
+}
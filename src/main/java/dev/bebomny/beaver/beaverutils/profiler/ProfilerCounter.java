@@ -0,0 +1,46 @@
+package dev.bebomny.beaver.beaverutils.profiler;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how often a hot path runs, summed up once per second by the {@link Profiler}.
+ * Safe to increment from any thread, e.g. the chunk builder threads calling into the XRay mixins.
+ */
+public class ProfilerCounter {
+
+    private final String name;
+    private final LongAdder adder = new LongAdder();
+    private long lastPerSecond;
+
+    ProfilerCounter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Counts one call, does nothing while the profiler is off
+     */
+    public void increment() {
+        if (Profiler.isActive())
+            adder.increment();
+    }
+
+    void roll() {
+        lastPerSecond = adder.sumThenReset();
+    }
+
+    void reset() {
+        adder.reset();
+        lastPerSecond = 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of calls in the last second
+     */
+    public long getPerSecond() {
+        return lastPerSecond;
+    }
+}